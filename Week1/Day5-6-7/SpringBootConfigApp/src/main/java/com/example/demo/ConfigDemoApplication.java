@@ -3,13 +3,9 @@ package com.example.demo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.beans.factory.annotation.Value;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 
 @SpringBootApplication
@@ -23,19 +19,18 @@ public class ConfigDemoApplication {
 @RestController
 class ConfigController {
     
-    // Injecting values from ConfigMap
-    @Value("${APP_NAME:DefaultApp}")
-    private String appName;
+    // Largest page /read-logs and /read-logs/tail build in memory; /logs/stream serves larger ranges
+    private static final int MAX_PAGE_BYTES = 1024 * 1024;
     
-    @Value("${LOG_LEVEL:INFO}")
-    private String logLevel;
+    private final LogStore logStore;
     
-    // Injecting values from Secret
-    @Value("${DB_USER:defaultuser}")
-    private String dbUser;
+    // Values from the ConfigMap and Secret, reloaded live when the mounted files change
+    private final MountedConfig config;
     
-    @Value("${DB_PASS:defaultpass}")
-    private String dbPassword;
+    ConfigController(LogStore logStore, MountedConfig config) {
+        this.logStore = logStore;
+        this.config = config;
+    }
     
     @GetMapping("/")
     public String home() {
@@ -44,9 +39,12 @@ class ConfigController {
     
     @GetMapping("/config")
     public String getConfig() {
+        // Read the snapshot once so all values come from the same reload
+        ConfigSnapshot snapshot = config.current();
         return String.format(
-            "Application Name: %s\nLog Level: %s\nDB User: %s\nDB Password: %s",
-            appName, logLevel, dbUser, "***" + dbPassword.substring(Math.max(0, dbPassword.length() - 3))
+            "Application Name: %s\nLog Level: %s\nDB User: %s\nDB Password: %s\nVersion: %d (%s, loaded %s)",
+            snapshot.appName(), snapshot.logLevel(), snapshot.dbUser(), snapshot.maskedPassword(),
+            snapshot.version(), snapshot.source(), snapshot.loadedAt()
         );
     }
     
@@ -57,38 +55,37 @@ class ConfigController {
     
     @GetMapping("/write-log")
     public String writeLog() {
-        String logDir = "/app/logs";
-        String logFile = logDir + "/app.log";
-        
         try {
-            // Create directory if it doesn't exist
-            File directory = new File(logDir);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            // Write log entry
-            FileWriter writer = new FileWriter(logFile, true);
-            writer.write(LocalDateTime.now() + " - Log entry from " + appName + "\n");
-            writer.close();
-            
-            return "Log written successfully to " + logFile;
+            // Appended by the log store's single writer; returns once the entry is durable
+            long offset = logStore.append(LocalDateTime.now() + " - Log entry from " + config.current().appName() + "\n");
+            return "Log written successfully to " + logStore.getDirectory() + " at offset " + offset;
         } catch (IOException e) {
             return "Error writing log: " + e.getMessage();
         }
     }
     
     @GetMapping("/read-logs")
-    public String readLogs() {
-        String logFile = "/app/logs/app.log";
-        
+    public String readLogs(@RequestParam(defaultValue = "0") long offset,
+                           @RequestParam(defaultValue = "65536") int limit) {
         try {
-            if (Files.exists(Paths.get(logFile))) {
-                String content = new String(Files.readAllBytes(Paths.get(logFile)));
-                return "=== Log File Contents ===\n" + content;
-            } else {
+            if (logStore.getEndOffset() == 0) {
                 return "Log file not found. Use /write-log to create entries.";
             }
+            LogStore.LogChunk chunk = logStore.read(offset, Math.min(limit, MAX_PAGE_BYTES));
+            String note = limit > MAX_PAGE_BYTES
+                    ? " (limit capped at " + MAX_PAGE_BYTES + " bytes; use /logs/stream for larger ranges)" : "";
+            return String.format("=== Log File Contents (bytes %d-%d of %d, next offset %d)%s ===\n%s",
+                    chunk.offset(), chunk.nextOffset(), chunk.endOffset(), chunk.nextOffset(), note, chunk.text());
+        } catch (IOException e) {
+            return "Error reading log: " + e.getMessage();
+        }
+    }
+    
+    @GetMapping("/read-logs/tail")
+    public String tailLogs(@RequestParam(defaultValue = "100") int lines) {
+        try {
+            LogStore.LogChunk chunk = logStore.tail(lines, MAX_PAGE_BYTES);
+            return "=== Last " + lines + " Log Entries ===\n" + chunk.text();
         } catch (IOException e) {
             return "Error reading log: " + e.getMessage();
         }
@@ -0,0 +1,35 @@
+package com.example.demo;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published by MountedConfig after a new snapshot has been swapped in and LOG_LEVEL applied.
+ * Listeners run on the watcher thread and should not block it.
+ */
+public class ConfigReloadedEvent extends ApplicationEvent {
+
+    private final ConfigSnapshot previous;
+    private final ConfigSnapshot current;
+    private final List<String> changedKeys;
+
+    public ConfigReloadedEvent(Object source, ConfigSnapshot previous, ConfigSnapshot current, List<String> changedKeys) {
+        super(source);
+        this.previous = previous;
+        this.current = current;
+        this.changedKeys = List.copyOf(changedKeys);
+    }
+
+    public ConfigSnapshot getPrevious() {
+        return previous;
+    }
+
+    public ConfigSnapshot getCurrent() {
+        return current;
+    }
+
+    public List<String> getChangedKeys() {
+        return changedKeys;
+    }
+}
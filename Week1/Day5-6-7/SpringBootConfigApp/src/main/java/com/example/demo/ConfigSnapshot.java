@@ -0,0 +1,57 @@
+package com.example.demo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One immutable generation of the ConfigMap and Secret values. MountedConfig swaps a new snapshot
+ * in atomically on every reload, so a request that reads a snapshot once sees a consistent set of
+ * values even while a reload is in progress.
+ */
+public record ConfigSnapshot(String appName, String logLevel, String dbUser, String dbPassword,
+                             long version, Instant loadedAt, String source) {
+
+    static final String APP_NAME = "APP_NAME";
+    static final String LOG_LEVEL = "LOG_LEVEL";
+    static final String DB_USER = "DB_USER";
+    static final String DB_PASS = "DB_PASS";
+
+    static final List<String> KEYS = List.of(APP_NAME, LOG_LEVEL, DB_USER, DB_PASS);
+
+    static ConfigSnapshot of(Map<String, String> values, long version, String source) {
+        return new ConfigSnapshot(values.get(APP_NAME), values.get(LOG_LEVEL), values.get(DB_USER),
+                values.get(DB_PASS), version, Instant.now(), source);
+    }
+
+    // Keys whose value differs from other; version, time and source are not configuration
+    List<String> changedKeys(ConfigSnapshot other) {
+        List<String> changed = new ArrayList<>();
+        if (!Objects.equals(appName, other.appName)) {
+            changed.add(APP_NAME);
+        }
+        if (!Objects.equals(logLevel, other.logLevel)) {
+            changed.add(LOG_LEVEL);
+        }
+        if (!Objects.equals(dbUser, other.dbUser)) {
+            changed.add(DB_USER);
+        }
+        if (!Objects.equals(dbPassword, other.dbPassword)) {
+            changed.add(DB_PASS);
+        }
+        return changed;
+    }
+
+    String maskedPassword() {
+        return "***" + dbPassword.substring(Math.max(0, dbPassword.length() - 3));
+    }
+
+    // Never prints the password, so snapshots are safe to log
+    @Override
+    public String toString() {
+        return "ConfigSnapshot[version=" + version + ", source=" + source + ", appName=" + appName
+                + ", logLevel=" + logLevel + ", dbUser=" + dbUser + ", dbPassword=" + maskedPassword() + "]";
+    }
+}
@@ -0,0 +1,590 @@
+package com.example.demo;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Segmented, append-only log store on the persistent volume.
+ *
+ * A single writer thread drains queued appends in batches (group commit) into a memory-mapped
+ * segment file and rolls to a new segment when the current one is full. Segments are named after
+ * the logical offset of their first byte, so any offset maps to one segment and readers can page
+ * through the log without loading it into memory.
+ *
+ * Next to each segment a sparse timestamp index (.tsidx) records the write time of an entry
+ * roughly every app.logs.index-interval-kb bytes, so "entries since T" can seek instead of scan.
+ *
+ * Pods sharing the volume each claim a writer slot (writer-0, writer-1, ...) by locking its lock
+ * file; the lowest free slot wins, so a restarted pod picks up the segments a dead one left behind.
+ * A plain app.log from before the segmented store is appended once by the first pod that finds it.
+ */
+@Component
+public class LogStore {
+
+    public enum Durability {
+        PER_WRITE,  // force to disk after every entry
+        BATCH,      // force once per group-commit batch
+        PERIODIC    // force every flush interval, acknowledge immediately
+    }
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".tsidx";
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int TAIL_BLOCK_BYTES = 8 * 1024;
+    private static final String SLOT_PREFIX = "writer-";
+    private static final String LOCK_FILE = "writer.lock";
+    private static final int MAX_WRITER_SLOTS = 16;
+    private static final String LEGACY_FILE = "app.log";
+    private static final String LEGACY_IMPORT = "app.log.importing";
+
+    private final Path directory;
+    private final FileLock slotLock;
+    private final int segmentBytes;
+    private final Durability durability;
+    private final long flushIntervalNanos;
+    private final int maxBatch;
+    private final int indexIntervalBytes;
+    private final long appendTimeoutMs;
+
+    private final BlockingQueue<PendingAppend> queue;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Write time (epoch millis) -> offset of the first entry indexed at that time
+    private final ConcurrentSkipListMap<Long, Long> timeIndex = new ConcurrentSkipListMap<>();
+    private final Thread writer;
+
+    // End of acknowledged data; readers never look past it
+    private volatile long endOffset;
+    private volatile boolean running = true;
+    // Set by the writer thread as it exits, before it fails whatever is still queued
+    private volatile boolean writerExited;
+
+    // Writer-thread state
+    private Segment active;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private FileChannel indexChannel;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+    private long nextIndexOffset;
+    private long lastForceNanos = System.nanoTime();
+
+    public LogStore(@Value("${app.logs.dir:/app/logs}") String logDir,
+                    @Value("${app.logs.segment-size-mb:64}") int segmentSizeMb,
+                    @Value("${app.logs.durability:BATCH}") Durability durability,
+                    @Value("${app.logs.flush-interval-ms:1000}") long flushIntervalMs,
+                    @Value("${app.logs.max-batch:256}") int maxBatch,
+                    @Value("${app.logs.queue-capacity:8192}") int queueCapacity,
+                    @Value("${app.logs.index-interval-kb:64}") int indexIntervalKb,
+                    @Value("${app.logs.append-timeout-ms:5000}") long appendTimeoutMs) throws IOException {
+        // The mapped writer must be the only writer of its slot; the lock is released by the OS if the pod dies
+        Slot slot = claimSlot(Paths.get(logDir));
+        this.directory = slot.directory();
+        this.slotLock = slot.lock();
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.durability = durability;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.indexIntervalBytes = indexIntervalKb * 1024;
+        this.appendTimeoutMs = appendTimeoutMs;
+
+        recover();
+        loadTimeIndex();
+        importLegacy(Paths.get(logDir, LEGACY_FILE));
+
+        this.writer = new Thread(this::runWriter, "log-store-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getStartOffset() {
+        return segments.isEmpty() ? 0 : segments.firstKey();
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Queues an entry and returns its offset once it satisfies the configured durability. Waits at
+     * most app.logs.append-timeout-ms for queue space; an entry queued after the writer has stopped
+     * fails rather than waiting for a writer that will never take it.
+     */
+    public CompletableFuture<Long> appendAsync(String entry) {
+        if (!running || writerExited) {
+            return CompletableFuture.failedFuture(new IOException("Log store is closed"));
+        }
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > segmentBytes) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Entry larger than segment size: " + bytes.length));
+        }
+        PendingAppend pending = new PendingAppend(bytes, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, appendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new IOException("Log store queue full for " + appendTimeoutMs + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        // The writer sets the flag before draining, so either it sees this entry or we see the flag
+        if (writerExited) {
+            failQueued(new IOException("Log store is closed"));
+        }
+        return pending.result();
+    }
+
+    // Waits at most app.logs.append-timeout-ms for the entry to become durable
+    public long append(String entry) throws IOException {
+        try {
+            return appendAsync(entry).get(appendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while appending log entry");
+        } catch (TimeoutException e) {
+            throw new IOException("Log entry not durable within " + appendTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads at most maxBytes starting at offset, crossing segment boundaries as needed.
+     * The chunk is cut at the last complete line when possible; continue from nextOffset.
+     */
+    public LogChunk read(long offset, int maxBytes) throws IOException {
+        long end = endOffset;
+        long from = Math.max(offset, getStartOffset());
+        if (from >= end || maxBytes <= 0) {
+            return new LogChunk(from, from, end, new byte[0]);
+        }
+
+        int length = (int) Math.min(maxBytes, end - from);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long position = from;
+        while (buffer.hasRemaining()) {
+            Segment segment = segments.floorEntry(position).getValue();
+            long segmentEnd = segment.baseOffset() + segment.size(end);
+            int span = (int) Math.min(buffer.remaining(), segmentEnd - position);
+            buffer.limit(buffer.position() + span);
+            readFully(segment, position - segment.baseOffset(), buffer);
+            buffer.limit(buffer.capacity());
+            position += span;
+        }
+
+        byte[] data = buffer.array();
+        int cut = lastNewline(data, data.length) + 1;
+        if (cut > 0 && cut < data.length) {
+            data = Arrays.copyOf(data, cut);
+        }
+        return new LogChunk(from, from + data.length, end, data);
+    }
+
+    // Returns the last lines entries, reading backwards block by block (bounded by maxBytes)
+    public LogChunk tail(int lines, int maxBytes) throws IOException {
+        long end = endOffset;
+        long from = tailOffset(lines, maxBytes, end);
+        return read(from, (int) (end - from));
+    }
+
+    // Offset of the first of the last lines entries before end, looking back at most maxBytes
+    public long tailOffset(int lines, long maxBytes, long end) throws IOException {
+        long start = getStartOffset();
+        long from = end;
+        int newlines = 0;
+
+        ByteBuffer block = ByteBuffer.allocate(TAIL_BLOCK_BYTES);
+        while (from > start && end - from < maxBytes) {
+            Segment segment = segments.lowerEntry(from).getValue();
+            long blockStart = Math.max(Math.max(segment.baseOffset(), from - TAIL_BLOCK_BYTES), end - maxBytes);
+            int length = (int) (from - blockStart);
+
+            block.clear().limit(length);
+            readFully(segment, blockStart - segment.baseOffset(), block);
+
+            // Ignore the trailing newline of the last entry
+            for (int i = length - 1; i >= 0; i--) {
+                if (block.get(i) == '\n' && blockStart + i != end - 1 && ++newlines == lines) {
+                    return blockStart + i + 1;
+                }
+            }
+            from = blockStart;
+        }
+        return from;
+    }
+
+    // Offset from which every entry written at or after epochMillis is included (one index interval early at most)
+    public long offsetSince(long epochMillis) {
+        Map.Entry<Long, Long> indexed = timeIndex.lowerEntry(epochMillis);
+        return indexed == null ? getStartOffset() : Math.max(indexed.getValue(), getStartOffset());
+    }
+
+    /**
+     * Copies [from, to) to target segment by segment with FileChannel.transferTo, so memory use is
+     * bounded by the channel's transfer buffer rather than by the range length.
+     */
+    public long transferTo(long from, long to, WritableByteChannel target) throws IOException {
+        long end = Math.min(to, endOffset);
+        long position = Math.max(from, getStartOffset());
+        while (position < end) {
+            Segment segment = segments.floorEntry(position).getValue();
+            long segmentEnd = Math.min(end, segment.baseOffset() + segment.size(end));
+            long transferred = segment.reader().transferTo(position - segment.baseOffset(), segmentEnd - position, target);
+            if (transferred <= 0) {
+                throw new EOFException("Segment " + segment.baseOffset() + " ended before offset " + position);
+            }
+            position += transferred;
+        }
+        return position - from;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The active segment is writer-thread state; a writer still running (stuck in I/O) keeps it,
+        // and recovery trims the unsealed segment on the next start
+        if (writer.isAlive()) {
+            return;
+        }
+        if (activeChannel != null) {
+            sealActive();
+        }
+        for (Segment segment : segments.values()) {
+            segment.reader().close();
+        }
+        slotLock.channel().close();
+    }
+
+    private void runWriter() {
+        IOException failure = new IOException("Log store is closed");
+        List<PendingAppend> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingAppend first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                if (durability == Durability.PERIODIC && System.nanoTime() - lastForceNanos >= flushIntervalNanos) {
+                    force();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            failure = new IOException("Log store writer stopped", e);
+            throw e;
+        } finally {
+            writerExited = true;
+            // A batch cut short by an Error was never completed; completed futures ignore this
+            for (PendingAppend pending : batch) {
+                pending.result().completeExceptionally(failure);
+            }
+            failQueued(failure);
+        }
+    }
+
+    // Completes every queued append exceptionally; only called once no writer will take them
+    private void failQueued(IOException failure) {
+        PendingAppend pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(failure);
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        List<PendingAppend> awaitingForce = new ArrayList<>(batch.size());
+        try {
+            for (PendingAppend pending : batch) {
+                if (activeBuffer.remaining() < pending.bytes().length) {
+                    roll();
+                }
+                long offset = active.baseOffset() + activeBuffer.position();
+                if (offset >= nextIndexOffset) {
+                    writeIndexEntry(System.currentTimeMillis(), offset);
+                }
+                activeBuffer.put(pending.bytes());
+
+                if (durability == Durability.PER_WRITE) {
+                    force();
+                    endOffset = offset + pending.bytes().length;
+                    pending.result().complete(offset);
+                } else {
+                    awaitingForce.add(new PendingAppend(pending.bytes(), pending.result(), offset));
+                }
+            }
+            if (durability == Durability.BATCH) {
+                force();
+            }
+            endOffset = active.baseOffset() + activeBuffer.position();
+            for (PendingAppend pending : awaitingForce) {
+                pending.result().complete(pending.offset());
+            }
+        } catch (IOException | RuntimeException e) {
+            for (PendingAppend pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void writeIndexEntry(long epochMillis, long offset) throws IOException {
+        indexEntry.clear();
+        indexEntry.putLong(epochMillis).putLong(offset).flip();
+        while (indexEntry.hasRemaining()) {
+            indexChannel.write(indexEntry);
+        }
+        timeIndex.putIfAbsent(epochMillis, offset);
+        nextIndexOffset = offset + indexIntervalBytes;
+    }
+
+    private void force() {
+        activeBuffer.force();
+        lastForceNanos = System.nanoTime();
+    }
+
+    private void roll() throws IOException {
+        long nextBase = active.baseOffset() + activeBuffer.position();
+        force();
+        endOffset = nextBase;
+        sealActive();
+        openActive(nextBase, 0);
+    }
+
+    // Truncates the pre-allocated mapping down to the written length
+    private void sealActive() throws IOException {
+        long written = activeBuffer.position();
+        activeBuffer.force();
+        activeChannel.truncate(written);
+        activeChannel.close();
+        indexChannel.close();
+        segments.put(active.baseOffset(), active.sealed(written));
+        activeChannel = null;
+        activeBuffer = null;
+        indexChannel = null;
+    }
+
+    private void openActive(long baseOffset, int position) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        activeBuffer.position(position);
+        indexChannel = FileChannel.open(directory.resolve(String.format("%020d%s", baseOffset, INDEX_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // Always index the first entry of a segment
+        nextIndexOffset = baseOffset + position;
+        active = new Segment(baseOffset, FileChannel.open(path, StandardOpenOption.READ), -1);
+        segments.put(baseOffset, active);
+    }
+
+    private static Slot claimSlot(Path root) throws IOException {
+        for (int n = 0; n < MAX_WRITER_SLOTS; n++) {
+            Path directory = root.resolve(SLOT_PREFIX + n);
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock != null) {
+                return new Slot(directory, lock);
+            }
+            channel.close();
+        }
+        throw new IOException("All " + MAX_WRITER_SLOTS + " writer slots under " + root + " are held by other writers");
+    }
+
+    // Runs before the writer thread starts. The legacy file is first moved into this slot, so only one
+    // pod imports it; an import cut short by a crash is redone on the next start.
+    private void importLegacy(Path legacy) throws IOException {
+        Path claimed = directory.resolve(LEGACY_IMPORT);
+        if (!Files.exists(claimed)) {
+            try {
+                Files.move(legacy, claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return;
+            }
+        }
+        try (FileChannel in = FileChannel.open(claimed, StandardOpenOption.READ)) {
+            if (!activeBuffer.hasRemaining()) {
+                roll();
+            }
+            // Indexed at import time, so "since T" never skips entries stored after it
+            writeIndexEntry(System.currentTimeMillis(), active.baseOffset() + activeBuffer.position());
+            // read() returns 0 once the segment is full
+            while (in.read(activeBuffer) >= 0) {
+                if (!activeBuffer.hasRemaining()) {
+                    roll();
+                }
+            }
+        }
+        // Keep the next entry on its own line
+        if (activeBuffer.position() > 0 && activeBuffer.get(activeBuffer.position() - 1) != '\n') {
+            if (!activeBuffer.hasRemaining()) {
+                roll();
+            }
+            activeBuffer.put((byte) '\n');
+        }
+        force();
+        endOffset = active.baseOffset() + activeBuffer.position();
+        Files.delete(claimed);
+    }
+
+    // Rebuilds the segment index from disk; the last segment's length is found by trimming its zero padding
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            openActive(0, 0);
+            endOffset = 0;
+            return;
+        }
+
+        // A sealed segment always ends where the next one begins
+        for (int i = 0; i < files.size() - 1; i++) {
+            Path path = files.get(i);
+            long baseOffset = baseOffsetOf(path);
+            long size = baseOffsetOf(files.get(i + 1)) - baseOffset;
+            segments.put(baseOffset, new Segment(baseOffset, FileChannel.open(path, StandardOpenOption.READ), size));
+        }
+
+        Path last = files.get(files.size() - 1);
+        long baseOffset = baseOffsetOf(last);
+        int written;
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ)) {
+            MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentBytes));
+            written = existing.limit();
+            while (written > 0 && existing.get(written - 1) == 0) {
+                written--;
+            }
+        }
+        openActive(baseOffset, written);
+        endOffset = baseOffset + written;
+    }
+
+    // Loads every sidecar index, dropping entries past the recovered end (written before a crash)
+    private void loadTimeIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(INDEX_SUFFIX)).toList();
+        }
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                entry.clear();
+                while (channel.read(entry) > 0) {
+                    if (entry.hasRemaining()) {
+                        continue;
+                    }
+                    entry.flip();
+                    long epochMillis = entry.getLong();
+                    long offset = entry.getLong();
+                    if (offset < endOffset) {
+                        timeIndex.merge(epochMillis, offset, Math::min);
+                    }
+                    entry.clear();
+                }
+            }
+        }
+    }
+
+    private static long baseOffsetOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void readFully(Segment segment, long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = segment.reader().read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Segment " + segment.baseOffset() + " ended before offset " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static int lastNewline(byte[] data, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public record LogChunk(long offset, long nextOffset, long endOffset, byte[] data) {
+
+        public String text() {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    }
+
+    // size < 0 marks the active segment, whose size is bounded by the store's end offset
+    private record Segment(long baseOffset, FileChannel reader, long size) {
+
+        long size(long storeEnd) {
+            return size >= 0 ? size : storeEnd - baseOffset;
+        }
+
+        Segment sealed(long written) {
+            return new Segment(baseOffset, reader, written);
+        }
+    }
+
+    private record Slot(Path directory, FileLock lock) {
+    }
+
+    private record PendingAppend(byte[] bytes, CompletableFuture<Long> result, long offset) {
+
+        PendingAppend(byte[] bytes, CompletableFuture<Long> result) {
+            this(bytes, result, -1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Streams log content straight from the segment files; memory per request does not grow with the range
+@RestController
+class LogStreamController {
+
+    private static final MediaType TEXT_UTF8 = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private final LogStore logStore;
+
+    LogStreamController(LogStore logStore) {
+        this.logStore = logStore;
+    }
+
+    // Precedence: Range header, then tail, then since, then fromOffset; limit caps the byte count
+    @GetMapping("/logs/stream")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestParam(required = false) Long fromOffset,
+            @RequestParam(required = false) Long limit,
+            @RequestParam(required = false) Integer tail,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since)
+            throws IOException {
+        long end = logStore.getEndOffset();
+        long start = logStore.getStartOffset();
+
+        // Malformed and multi-part ranges are ignored and the request is served as usual (allowed by RFC 9110)
+        List<HttpRange> ranges = parseRanges(rangeHeader);
+        if (ranges.size() == 1) {
+            return rangeResponse(ranges.get(0), start, end);
+        }
+
+        long from;
+        if (tail != null) {
+            // tail=0 (or less) asks for no entries
+            from = tail > 0 ? logStore.tailOffset(tail, Long.MAX_VALUE, end) : end;
+        } else if (since != null) {
+            from = logStore.offsetSince(since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        } else {
+            from = fromOffset == null ? start : Math.max(start, fromOffset);
+        }
+        from = Math.min(from, end);
+        // Compared before adding so a huge limit cannot overflow
+        long to = limit == null || limit >= end - from ? end : from + Math.max(0, limit);
+
+        return ResponseEntity.ok()
+                .headers(offsetHeaders(from, to, end))
+                .contentType(TEXT_UTF8)
+                .contentLength(to - from)
+                .body(body(from, to));
+    }
+
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> rangeResponse(HttpRange range, long start, long end) {
+        long length = end - start;
+        if (length == 0 || rangeStartsPastEnd(range, length)) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        long from = start + range.getRangeStart(length);
+        long to = start + range.getRangeEnd(length) + 1;
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(offsetHeaders(from, to, end))
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + (from - start) + "-" + (to - start - 1) + "/" + length)
+                .contentType(TEXT_UTF8)
+                .contentLength(to - from)
+                .body(body(from, to));
+    }
+
+    private static boolean rangeStartsPastEnd(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) >= length;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private StreamingResponseBody body(long from, long to) {
+        return outputStream -> {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            logStore.transferTo(from, to, target);
+        };
+    }
+
+    private static HttpHeaders offsetHeaders(long from, long to, long end) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set("X-Log-Offset", Long.toString(from));
+        headers.set("X-Log-Next-Offset", Long.toString(to));
+        headers.set("X-Log-End-Offset", Long.toString(end));
+        return headers;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live view of the ConfigMap and Secret mounted as volumes under app.config.dirs.
+ *
+ * Environment variables are resolved once, when the container starts; files in a ConfigMap or
+ * Secret volume are updated in place by the kubelet. Kubernetes writes each update into a new
+ * timestamped directory and then renames the ..data symlink onto it, so every key file (itself a
+ * symlink into ..data) switches to the new generation at once. The key files never change, only
+ * the directory does, so the watcher reloads on any event in it, resolves ..data once and reads
+ * every key from that one generation.
+ *
+ * Each reload builds a new ConfigSnapshot and swaps it in with a single volatile write; requests
+ * read current() without locking. A snapshot with an invalid LOG_LEVEL is rejected as a whole and
+ * the previous one stays in place. The directories are also re-read every
+ * app.config.poll-interval-ms, which covers missed events and directories mounted after start.
+ */
+@Component
+public class MountedConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MountedConfig.class);
+
+    private static final String DATA_LINK = "..data";
+
+    private final List<Path> directories;
+    private final long pollIntervalMs;
+    private final long debounceMs;
+    private final String logLevelLogger;
+    private final Map<String, String> defaults = new HashMap<>();
+    private final LoggingSystem loggingSystem;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter applied;
+    private final Counter failed;
+    private final Thread watcher;
+
+    private volatile ConfigSnapshot current;
+    private volatile boolean running = true;
+
+    // Last failure message, so a persistently broken file is counted and logged once rather than every poll
+    private String lastFailure;
+
+    public MountedConfig(@Value("${app.config.dirs:}") String directories,
+                         @Value("${app.config.poll-interval-ms:10000}") long pollIntervalMs,
+                         @Value("${app.config.debounce-ms:250}") long debounceMs,
+                         @Value("${app.config.log-level-logger:ROOT}") String logLevelLogger,
+                         Environment environment, LoggingSystem loggingSystem,
+                         ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.directories = Arrays.stream(directories.split(","))
+                .map(String::trim)
+                .filter(dir -> !dir.isEmpty())
+                .map(dir -> Paths.get(dir))
+                .toList();
+        this.pollIntervalMs = pollIntervalMs;
+        this.debounceMs = debounceMs;
+        this.logLevelLogger = logLevelLogger;
+        this.loggingSystem = loggingSystem;
+        this.eventPublisher = eventPublisher;
+
+        // Values injected as environment variables at container start; a mounted file overrides them
+        defaults.put(ConfigSnapshot.APP_NAME, environment.getProperty(ConfigSnapshot.APP_NAME, "DefaultApp"));
+        defaults.put(ConfigSnapshot.LOG_LEVEL, environment.getProperty(ConfigSnapshot.LOG_LEVEL, "INFO"));
+        defaults.put(ConfigSnapshot.DB_USER, environment.getProperty(ConfigSnapshot.DB_USER, "defaultuser"));
+        defaults.put(ConfigSnapshot.DB_PASS, environment.getProperty(ConfigSnapshot.DB_PASS, "defaultpass"));
+
+        this.applied = Counter.builder("config.reloads")
+                .description("Configuration reloads from the mounted ConfigMap and Secret")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.failed = Counter.builder("config.reloads")
+                .description("Configuration reloads from the mounted ConfigMap and Secret")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("config.version", this, c -> c.current.version())
+                .description("Version of the configuration snapshot in use, incremented on every applied reload")
+                .register(meterRegistry);
+        Gauge.builder("config.last.reload", this, c -> c.current.loadedAt().toEpochMilli() / 1000.0)
+                .description("Time the configuration snapshot in use was loaded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        // A broken mount at startup fails the pod instead of running with half-applied configuration
+        try {
+            ConfigSnapshot initial = ConfigSnapshot.of(load(), 1, "startup");
+            applyLogLevel(initial.logLevel());
+            this.current = initial;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot load configuration from " + this.directories, e);
+        }
+        log.info("Configuration loaded from {} (environment as fallback): {}", this.directories, current);
+
+        this.watcher = new Thread(this::watch, "config-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        watcher.interrupt();
+    }
+
+    public ConfigSnapshot current() {
+        return current;
+    }
+
+    public List<Path> getDirectories() {
+        return directories;
+    }
+
+    private void watch() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            Map<Path, WatchKey> keys = new HashMap<>();
+            while (running) {
+                register(watchService, keys);
+                WatchKey key = watchService.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    reload("poll");
+                    continue;
+                }
+                // One update is several events (new generation, ..data_tmp, rename to ..data, old
+                // generation removed); wait until they stop and reload once
+                do {
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        keys.values().remove(key);
+                    }
+                } while ((key = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null);
+                reload("watch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Configuration watcher stopped; values stay at version {}", current.version(), e);
+        }
+    }
+
+    // Registers directories that exist now and are not watched yet (mounted late, or re-created)
+    private void register(WatchService watchService, Map<Path, WatchKey> keys) throws IOException {
+        for (Path dir : directories) {
+            if (!keys.containsKey(dir) && Files.isDirectory(dir)) {
+                keys.put(dir, dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+        }
+    }
+
+    // Only called from the watcher thread, so snapshots are built and swapped by a single writer
+    void reload(String trigger) {
+        ConfigSnapshot previous = current;
+        ConfigSnapshot next;
+        try {
+            next = ConfigSnapshot.of(load(), previous.version() + 1, trigger);
+            // Reject the whole snapshot before anything is applied
+            parseLogLevel(next.logLevel());
+        } catch (IOException | IllegalArgumentException e) {
+            String message = e.toString();
+            if (!message.equals(lastFailure)) {
+                failed.increment();
+                log.warn("Configuration reload ({}) rejected, keeping version {}: {}", trigger, previous.version(), message);
+            }
+            lastFailure = message;
+            return;
+        }
+        lastFailure = null;
+
+        List<String> changed = next.changedKeys(previous);
+        if (changed.isEmpty()) {
+            return;
+        }
+        if (changed.contains(ConfigSnapshot.LOG_LEVEL)) {
+            applyLogLevel(next.logLevel());
+        }
+        current = next;
+        applied.increment();
+        log.info("Configuration reloaded ({}), version {} -> {}, changed {}", trigger, previous.version(),
+                next.version(), changed);
+        eventPublisher.publishEvent(new ConfigReloadedEvent(this, previous, next, changed));
+    }
+
+    // Environment defaults overlaid with each directory in order, so a Secret listed last wins
+    private Map<String, String> load() throws IOException {
+        Map<String, String> values = new HashMap<>(defaults);
+        for (Path dir : directories) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            Path data = dir.resolve(DATA_LINK);
+            Path generation = Files.isDirectory(data) ? data.toRealPath() : dir;
+            for (String key : ConfigSnapshot.KEYS) {
+                Path file = generation.resolve(key);
+                if (Files.isRegularFile(file)) {
+                    // Values created with --from-file usually end with a newline
+                    values.put(key, Files.readString(file).replaceFirst("\\R$", ""));
+                }
+            }
+        }
+        return values;
+    }
+
+    private void applyLogLevel(String level) {
+        loggingSystem.setLogLevel(logLevelLogger, parseLogLevel(level));
+    }
+
+    private static LogLevel parseLogLevel(String level) {
+        try {
+            return LogLevel.valueOf(level.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("LOG_LEVEL '" + level + "' is not one of " + Arrays.toString(LogLevel.values()));
+        }
+    }
+}
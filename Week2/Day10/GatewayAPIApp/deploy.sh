@@ -68,6 +68,7 @@ print_info "cert-manager installed successfully"
 # Step 3: Build application
 print_info "Step 3: Building Spring Boot application..."
 if [ -f "pom.xml" ]; then
+    mvn -f ../../../instrumentation/pom.xml install -DskipTests
     mvn clean package -DskipTests
     print_info "Application built successfully"
 else
@@ -76,7 +77,7 @@ fi
 
 # Step 4: Build Docker image
 print_info "Step 4: Building Docker image..."
-docker build -t gateway-api-app:1.0 . || print_warning "Docker build failed or Docker not available"
+docker build --build-context instrumentation=../../../instrumentation -t gateway-api-app:1.0 . || print_warning "Docker build failed or Docker not available"
 
 # Step 5: Load image to cluster (Minikube/Kind)
 print_info "Step 5: Loading image to cluster..."
@@ -0,0 +1,104 @@
+#!/bin/bash
+
+# Compares the servlet (Tomcat, platform and virtual threads) and reactive (WebFlux/Netty)
+# variants of GatewayAPIApp inside the deployment's container limits (0.5 CPU, 512Mi).
+# Each variant runs in its own container and is held at CONNECTIONS concurrent keep-alive
+# connections by wrk. Reports throughput, p99 latency and container memory, with memory
+# normalized to 10k connections.
+#
+# Usage: ./loadtest-reactive.sh [connections] [duration] [path]
+# Requires docker and wrk. Raise the open-file limit first: ulimit -n 65536
+
+IMAGE=${IMAGE:-gateway-api-app:1.0}
+CONNECTIONS=${1:-10000}
+DURATION=${2:-60s}
+TARGET_PATH=${3:-/api/info}
+CPUS=0.5
+MEMORY=512m
+PORT=18080
+MANAGEMENT_PORT=18081
+
+echo "=========================================="
+echo "Servlet vs reactive load test"
+echo "=========================================="
+echo "Image       : $IMAGE (limits: $CPUS CPU, $MEMORY)"
+echo "Connections : $CONNECTIONS for $DURATION on $TARGET_PATH"
+echo ""
+
+if ! docker image inspect "$IMAGE" > /dev/null 2>&1; then
+    echo "Building $IMAGE..."
+    docker build --build-context instrumentation=../../../instrumentation -t "$IMAGE" . || exit 1
+fi
+
+# docker stats reports e.g. "123.4MiB / 512MiB"; prints the usage in MiB
+memory_mib() {
+    docker stats --no-stream --format '{{.MemUsage}}' "$1" | awk '{
+        v = $1; unit = v; gsub(/[0-9.]/, "", unit); sub(/[A-Za-z]+$/, "", v)
+        if (unit == "GiB") v *= 1024; else if (unit == "KiB") v /= 1024; else if (unit == "B") v /= 1048576
+        printf "%.1f\n", v
+    }'
+}
+
+# wrk prints latencies as e.g. 850.12us, 12.34ms or 1.20s; prints milliseconds
+to_ms() {
+    echo "$1" | awk '{
+        v = $1; unit = v; gsub(/[0-9.]/, "", unit); sub(/[a-z]+$/, "", v)
+        if (unit == "us") v /= 1000; else if (unit == "s") v *= 1000; else if (unit == "m") v *= 60000
+        printf "%.2f\n", v
+    }'
+}
+
+RESULTS=$(mktemp)
+
+run_variant() {
+    local name=$1 profiles=$2 virtual=$3
+    local container="gateway-loadtest-$name"
+
+    echo "--- $name ---"
+    # The response cache and the rate limiter only exist in the servlet variant; disabled so both do the
+    # same work (every wrk connection would otherwise share the docker bridge address's bucket)
+    docker run -d --rm --name "$container" --cpus "$CPUS" --memory "$MEMORY" -p "$PORT:8080" -p "$MANAGEMENT_PORT:8081" \
+        -e SPRING_PROFILES_ACTIVE="$profiles" \
+        -e VIRTUAL_THREADS_ENABLED="$virtual" \
+        -e APP_RESPONSECACHE_ENABLED=false \
+        -e RATE_LIMIT_ENABLED=false \
+        "$IMAGE" > /dev/null || return
+
+    for i in $(seq 1 60); do
+        curl -s -o /dev/null "http://localhost:$MANAGEMENT_PORT/actuator/health" && break
+        sleep 1
+    done
+
+    # Warm up the JIT before measuring
+    wrk -t 2 -c 100 -d 15s "http://localhost:$PORT$TARGET_PATH" > /dev/null
+    local idle
+    idle=$(memory_mib "$container")
+
+    # Sample memory halfway through the measured run, while all connections are open
+    local seconds=${DURATION%s}
+    (sleep $((seconds / 2)); memory_mib "$container" > "$RESULTS.mem") &
+    local output
+    output=$(wrk -t 4 -c "$CONNECTIONS" -d "$DURATION" --timeout 10s --latency "http://localhost:$PORT$TARGET_PATH")
+    wait
+    local loaded
+    loaded=$(cat "$RESULTS.mem")
+
+    local rps p99 errors
+    rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+    p99=$(to_ms "$(echo "$output" | awk '$1 == "99%" {print $2}')")
+    errors=$(echo "$output" | awk '/Socket errors/ {gsub(",", ""); print $4 + $6 + $8 + $10}')
+    local per10k
+    per10k=$(awk -v i="$idle" -v l="$loaded" -v c="$CONNECTIONS" 'BEGIN {printf "%.1f", (l - i) * 10000 / c}')
+
+    printf "%-16s %12s %10s %10s %10s %14s %8s\n" "$name" "$rps" "$p99" "$idle" "$loaded" "$per10k" "${errors:-0}" >> "$RESULTS"
+    docker stop "$container" > /dev/null
+}
+
+run_variant servlet "" false
+run_variant servlet-virtual "" true
+run_variant reactive reactive false
+
+echo ""
+printf "%-16s %12s %10s %10s %10s %14s %8s\n" "variant" "req/s" "p99 ms" "idle MiB" "load MiB" "MiB per 10k" "errors"
+cat "$RESULTS"
+rm -f "$RESULTS" "$RESULTS.mem"
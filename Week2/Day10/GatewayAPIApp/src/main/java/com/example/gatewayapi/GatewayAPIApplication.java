@@ -1,9 +1,12 @@
 package com.example.gatewayapi;
 
+import com.example.gatewayapi.ingest.IngestProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(IngestProperties.class)
 public class GatewayAPIApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,5 @@
+package com.example.gatewayapi.cache;
+
+// A fully serialized 200 response body, as stored by a ResponseCache
+public record CachedResponse(byte[] body, String contentType, String etag, long storedAtNanos) {
+}
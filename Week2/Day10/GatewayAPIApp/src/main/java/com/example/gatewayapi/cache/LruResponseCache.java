@@ -0,0 +1,65 @@
+package com.example.gatewayapi.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU cache with a fixed time-to-live per entry
+public class LruResponseCache implements ResponseCache {
+
+    private final long ttlNanos;
+    private final LinkedHashMap<String, CachedResponse> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LruResponseCache(int maxEntries, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        // Access order: every hit moves the entry to the tail, the eldest entry is least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - response.storedAtNanos() > ttlNanos) {
+            entries.remove(key);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return response;
+    }
+
+    @Override
+    public synchronized void put(String key, CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.gatewayapi.cache;
+
+/**
+ * Storage behind ResponseCacheFilter. Implementations decide eviction and expiry; get() must
+ * never return an expired entry.
+ */
+public interface ResponseCache {
+
+    CachedResponse get(String key);
+
+    void put(String key, CachedResponse response);
+
+    int size();
+
+    Stats stats();
+
+    record Stats(long hits, long misses, long evictions, long expirations) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.gatewayapi.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the response cache in front of /api/info and /api/health. Another ResponseCache bean
+ * (e.g. one backed by Caffeine) can replace the LRU implementation without touching the filter.
+ * Servlet only; the reactive profile serves these endpoints uncached.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(prefix = "app.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfiguration {
+
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties properties) {
+        return new LruResponseCache(properties.maxEntries(), properties.ttl());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseCache responseCache,
+                                                                         ResponseCacheProperties properties) {
+        FilterRegistrationBean<ResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCacheFilter(responseCache, properties));
+        registration.addUrlPatterns(properties.paths().toArray(String[]::new));
+        return registration;
+    }
+
+    // /actuator/metrics/http.response.cache.requests?tag=result:hit and friends
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache responseCache,
+                                            FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter) {
+        ResponseCacheFilter filter = responseCacheFilter.getFilter();
+        return registry -> {
+            FunctionCounter.builder("http.response.cache.requests", responseCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("http.response.cache.requests", responseCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("http.response.cache.evictions", responseCache, cache -> cache.stats().evictions())
+                    .tag("cause", "size")
+                    .register(registry);
+            FunctionCounter.builder("http.response.cache.evictions", responseCache, cache -> cache.stats().expirations())
+                    .tag("cause", "expired")
+                    .register(registry);
+            FunctionCounter.builder("http.response.cache.not.modified", filter, ResponseCacheFilter::getNotModifiedCount)
+                    .description("Requests answered with 304 from a matching If-None-Match")
+                    .register(registry);
+            Gauge.builder("http.response.cache.size", responseCache, ResponseCache::size)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.gatewayapi.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves GET requests for the configured paths from pre-serialized bytes. Entries are keyed by
+ * path, query and the configured vary headers, and carry a strong ETag so clients presenting
+ * If-None-Match get a 304 without a body. Both 200 and 304 list the vary headers in Vary, so
+ * browsers and shared caches downstream key their copies the same way.
+ *
+ * Only 200 responses are stored. Concurrent misses for the same key each run the handler; the
+ * last one to finish is the one kept.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final ResponseCache cache;
+    private final List<String> paths;
+    private final List<String> varyHeaders;
+    private final long maxAgeSeconds;
+    private final LongAdder notModified = new LongAdder();
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties) {
+        this.cache = cache;
+        this.paths = List.copyOf(properties.paths());
+        this.varyHeaders = List.copyOf(properties.varyHeaders());
+        this.maxAgeSeconds = properties.ttl().toSeconds();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = keyFor(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        CachedResponse fresh = new CachedResponse(body, wrapper.getContentType(), etagFor(body), System.nanoTime());
+        cache.put(key, fresh);
+
+        // The wrapper's buffer is dropped; the fresh entry is answered exactly like a hit
+        write(request, response, fresh);
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=" + maxAgeSeconds);
+        addVary(response);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    // Keeps whatever Vary the handler already set on a miss (CORS adds Origin, for one)
+    private void addVary(HttpServletResponse response) {
+        Collection<String> present = response.getHeaders(HttpHeaders.VARY);
+        for (String header : varyHeaders) {
+            if (present.stream().noneMatch(value -> containsToken(value, header))) {
+                response.addHeader(HttpHeaders.VARY, header);
+            }
+        }
+    }
+
+    private String keyFor(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        for (String header : varyHeaders) {
+            key.append('|').append(request.getHeader(header));
+        }
+        return key.toString();
+    }
+
+    // Same form as Spring's ShallowEtagHeaderFilter
+    private static String etagFor(byte[] body) {
+        return "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private static boolean containsToken(String headerValue, String token) {
+        for (String candidate : headerValue.split(",")) {
+            String name = candidate.trim();
+            if (name.equals("*") || name.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match may list several tags or "*"; weak comparison, as RFC 9110 requires for it
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gatewayapi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Settings for ResponseCacheFilter (app.response-cache.*)
+@ConfigurationProperties(prefix = "app.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration ttl,
+        @DefaultValue("256") int maxEntries,
+        @DefaultValue({"/api/info", "/api/health"}) List<String> paths,
+        @DefaultValue("Accept") List<String> varyHeaders) {
+}
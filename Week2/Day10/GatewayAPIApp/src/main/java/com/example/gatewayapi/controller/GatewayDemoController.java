@@ -1,13 +1,20 @@
 package com.example.gatewayapi.controller;
 
+import com.example.gatewayapi.json.HeaderJsonWriter;
+import com.example.gatewayapi.logging.BodyLogSampler;
 import com.example.gatewayapi.model.AppInfo;
 import com.example.gatewayapi.model.HealthResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,8 +22,13 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api")
 @Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GatewayDemoController {
 
+    private final HeaderJsonWriter headerJsonWriter;
+    private final BodyLogSampler bodyLogSampler;
+
     @Value("${app.name:Gateway API Demo}")
     private String appName;
 
@@ -51,16 +63,13 @@ public class GatewayDemoController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/headers")
-    public ResponseEntity<Map<String, String>> getHeaders(HttpServletRequest request) {
+    @GetMapping(value = "/headers", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getHeaders(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("Headers endpoint called");
         
-        Map<String, String> headers = new HashMap<>();
-        request.getHeaderNames().asIterator().forEachRemaining(headerName -> 
-            headers.put(headerName, request.getHeader(headerName))
-        );
-        
-        return ResponseEntity.ok(headers);
+        // Streamed straight into the response buffer; no per-request Map
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        headerJsonWriter.writeHeaders(request, response.getOutputStream());
     }
 
     @GetMapping("/path/{value}")
@@ -77,7 +86,8 @@ public class GatewayDemoController {
 
     @PostMapping("/data")
     public ResponseEntity<Map<String, Object>> postData(@RequestBody Map<String, Object> data) {
-        log.info("POST request received with data: {}", data);
+        // Only a sample of bodies is logged, capped in size and rendered on the log writer thread
+        log.info("POST request received with data: {}", bodyLogSampler.sample(data));
         
         Map<String, Object> response = new HashMap<>();
         response.put("received", data);
@@ -87,20 +97,11 @@ public class GatewayDemoController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/gateway-info")
-    public ResponseEntity<Map<String, String>> getGatewayInfo(HttpServletRequest request) {
+    @GetMapping(value = "/gateway-info", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getGatewayInfo(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("Gateway info endpoint called");
         
-        Map<String, String> gatewayInfo = new HashMap<>();
-        gatewayInfo.put("X-Forwarded-For", request.getHeader("X-Forwarded-For"));
-        gatewayInfo.put("X-Forwarded-Proto", request.getHeader("X-Forwarded-Proto"));
-        gatewayInfo.put("X-Forwarded-Host", request.getHeader("X-Forwarded-Host"));
-        gatewayInfo.put("X-Real-IP", request.getHeader("X-Real-IP"));
-        gatewayInfo.put("Host", request.getHeader("Host"));
-        gatewayInfo.put("Protocol", request.getProtocol());
-        gatewayInfo.put("Scheme", request.getScheme());
-        gatewayInfo.put("ServerName", request.getServerName());
-        
-        return ResponseEntity.ok(gatewayInfo);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        headerJsonWriter.writeGatewayInfo(request, response.getOutputStream());
     }
 }
@@ -0,0 +1,76 @@
+package com.example.gatewayapi.controller;
+
+import com.example.gatewayapi.ingest.BatchAck;
+import com.example.gatewayapi.ingest.IngestBatch;
+import com.example.gatewayapi.ingest.IngestPipeline;
+import com.example.gatewayapi.ingest.NdjsonIngestor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming alternative to POST /api/data: accepts NDJSON batches, queues each record for
+ * background processing and acknowledges the batch. Answers 429 while the queue is full.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IngestController {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final NdjsonIngestor ingestor;
+    private final IngestPipeline pipeline;
+
+    @PostMapping(consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<BatchAck> ingest(HttpServletRequest request) throws IOException {
+        // Reject before reading anything when the outcome is already known
+        if (request.getContentLengthLong() > ingestor.getMaxBodyBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(rejectedUnread(BatchAck.Outcome.TOO_LARGE,
+                    "Request body exceeds " + ingestor.getMaxBodyBytes() + " bytes"));
+        }
+        if (pipeline.isFull()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(rejectedUnread(BatchAck.Outcome.QUEUE_FULL, "Processing queue is full"));
+        }
+
+        BatchAck ack = ingestor.ingest(request.getInputStream());
+        log.info("Ingest {}: {} accepted, {} rejected, outcome {}", ack.batchId(), ack.accepted(), ack.rejected(), ack.outcome());
+        
+        return switch (ack.outcome()) {
+            case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/ingest/batches/" + ack.batchId())
+                    .body(ack);
+            case QUEUE_FULL -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(ack);
+            case TOO_LARGE -> ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ack);
+            case INVALID -> ResponseEntity.badRequest().body(ack);
+        };
+    }
+
+    @GetMapping("/batches/{id}")
+    public ResponseEntity<Map<String, Object>> batchStatus(@PathVariable String id) {
+        IngestBatch batch = pipeline.getBatch(id);
+        if (batch == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(batch.status());
+    }
+
+    private static BatchAck rejectedUnread(BatchAck.Outcome outcome, String message) {
+        return new BatchAck(null, outcome, 0, 0, 0, List.of(), message);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gatewayapi.controller;
+
+import com.example.gatewayapi.logging.BodyLogSampler;
+import com.example.gatewayapi.model.AppInfo;
+import com.example.gatewayapi.model.HealthResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.AbstractServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerRequest;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The /api contract of GatewayDemoController on WebFlux/Netty. Active when the app runs as a
+ * reactive web application (the "reactive" profile); responses are identical to the servlet version.
+ */
+@RestController
+@RequestMapping("/api")
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayDemoController {
+
+    private final BodyLogSampler bodyLogSampler;
+
+    @Value("${app.name:Gateway API Demo}")
+    private String appName;
+
+    @Value("${app.version:1.0.0}")
+    private String appVersion;
+
+    @GetMapping("/info")
+    public Mono<ResponseEntity<AppInfo>> getInfo(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        log.info("Received request for /api/info from {}", remote == null ? null : remote.getAddress().getHostAddress());
+        
+        AppInfo info = AppInfo.builder()
+                .name(appName)
+                .version(appVersion)
+                .timestamp(LocalDateTime.now())
+                .description("Spring Boot application exposed via Kubernetes Gateway API")
+                .gatewayType("Traefik")
+                .build();
+        
+        return Mono.just(ResponseEntity.ok(info));
+    }
+
+    @GetMapping("/health")
+    public Mono<ResponseEntity<HealthResponse>> health() {
+        log.info("Health check requested");
+        
+        HealthResponse response = HealthResponse.builder()
+                .status("UP")
+                .timestamp(LocalDateTime.now())
+                .message("Application is healthy and accessible via Gateway API")
+                .build();
+        
+        return Mono.just(ResponseEntity.ok(response));
+    }
+
+    @GetMapping("/headers")
+    public Mono<ResponseEntity<Map<String, String>>> getHeaders(ServerHttpRequest request) {
+        log.info("Headers endpoint called");
+        
+        // First value per header, like HttpServletRequest.getHeader
+        return Mono.just(ResponseEntity.ok(request.getHeaders().toSingleValueMap()));
+    }
+
+    @GetMapping("/path/{value}")
+    public Mono<ResponseEntity<Map<String, String>>> pathVariable(@PathVariable String value) {
+        log.info("Path variable endpoint called with value: {}", value);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("path", value);
+        response.put("message", "Path routing via HTTPRoute works!");
+        response.put("timestamp", LocalDateTime.now().toString());
+        
+        return Mono.just(ResponseEntity.ok(response));
+    }
+
+    @PostMapping("/data")
+    public Mono<ResponseEntity<Map<String, Object>>> postData(@RequestBody Mono<Map<String, Object>> body) {
+        return body.map(data -> {
+            log.info("POST request received with data: {}", bodyLogSampler.sample(data));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("received", data);
+            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("status", "processed");
+            
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/gateway-info")
+    public Mono<ResponseEntity<Map<String, String>>> getGatewayInfo(ServerHttpRequest request) {
+        log.info("Gateway info endpoint called");
+        
+        Map<String, String> gatewayInfo = new HashMap<>();
+        gatewayInfo.put("X-Forwarded-For", request.getHeaders().getFirst("X-Forwarded-For"));
+        gatewayInfo.put("X-Forwarded-Proto", request.getHeaders().getFirst("X-Forwarded-Proto"));
+        gatewayInfo.put("X-Forwarded-Host", request.getHeaders().getFirst("X-Forwarded-Host"));
+        gatewayInfo.put("X-Real-IP", request.getHeaders().getFirst("X-Real-IP"));
+        gatewayInfo.put("Host", request.getHeaders().getFirst("Host"));
+        gatewayInfo.put("Protocol", protocolOf(request));
+        gatewayInfo.put("Scheme", request.getURI().getScheme());
+        gatewayInfo.put("ServerName", request.getURI().getHost());
+        
+        return Mono.just(ResponseEntity.ok(gatewayInfo));
+    }
+
+    private static String protocolOf(ServerHttpRequest request) {
+        if (request instanceof AbstractServerHttpRequest server
+                && server.getNativeRequest() instanceof HttpServerRequest netty) {
+            return netty.version().text();
+        }
+        return "HTTP/1.1";
+    }
+}
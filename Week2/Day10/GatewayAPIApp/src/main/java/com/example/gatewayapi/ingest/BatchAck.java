@@ -0,0 +1,31 @@
+package com.example.gatewayapi.ingest;
+
+import java.util.List;
+
+/**
+ * Acknowledgement for one NDJSON batch. Records are numbered from 0 in body order;
+ * accepted records are queued for processing, everything from nextRecord on was not read.
+ */
+public record BatchAck(
+        String batchId,
+        Outcome outcome,
+        int accepted,
+        int rejected,
+        int nextRecord,
+        List<RecordError> errors,
+        String message) {
+
+    public enum Outcome {
+        // Every record was read; individual records may still have been rejected
+        ACCEPTED,
+        // The processing queue filled up; retry from nextRecord later
+        QUEUE_FULL,
+        // The body exceeded the size limit
+        TOO_LARGE,
+        // The body is not valid NDJSON or nests too deeply; reading stopped at nextRecord
+        INVALID
+    }
+
+    public record RecordError(int record, int line, String error) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gatewayapi.ingest;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Progress of one POST /api/ingest request; records are processed after the response is sent
+public class IngestBatch {
+
+    private final String id;
+    private final Instant receivedAt = Instant.now();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    IngestBatch(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    void recordAccepted() {
+        accepted.incrementAndGet();
+    }
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failed.incrementAndGet();
+    }
+
+    // No more records will arrive for this batch
+    void close() {
+        closed = true;
+    }
+
+    public boolean isComplete() {
+        return closed && processed.get() + failed.get() == accepted.get();
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("batchId", id);
+        status.put("receivedAt", receivedAt.toString());
+        status.put("accepted", accepted.get());
+        status.put("processed", processed.get());
+        status.put("failed", failed.get());
+        status.put("complete", isComplete());
+        return status;
+    }
+}
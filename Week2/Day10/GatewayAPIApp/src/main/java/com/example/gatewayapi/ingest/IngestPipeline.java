@@ -0,0 +1,182 @@
+package com.example.gatewayapi.ingest;
+
+import com.example.instrumentation.shutdown.DrainListener;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue of ingested records drained by a fixed pool of worker threads. offer() never
+ * blocks: a full queue is reported back so the endpoint can answer 429 instead of buffering.
+ * On shutdown, records already acknowledged are worked off once HTTP traffic has drained.
+ */
+@Component
+public class IngestPipeline implements MeterBinder, DrainListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestPipeline.class);
+
+    private final BlockingQueue<QueuedRecord> queue;
+    private final ExecutorService workers;
+    private final int batchesKept;
+    private final Map<String, IngestBatch> batches = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<String> batchOrder = new ConcurrentLinkedDeque<>();
+    private final AtomicLong nextBatchId = new AtomicLong();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder processedFields = new LongAdder();
+    private final Map<BatchAck.Outcome, LongAdder> outcomes = new EnumMap<>(BatchAck.Outcome.class);
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public IngestPipeline(IngestProperties properties) {
+        this(properties.queueCapacity(), properties.workers(), properties.batchesKept());
+    }
+
+    public IngestPipeline(int queueCapacity, int workerCount, int batchesKept) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchesKept = batchesKept;
+        for (BatchAck.Outcome outcome : BatchAck.Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "ingest-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    public IngestBatch newBatch() {
+        IngestBatch batch = new IngestBatch("batch-" + nextBatchId.incrementAndGet());
+        batches.put(batch.getId(), batch);
+        batchOrder.addLast(batch.getId());
+        while (batchOrder.size() > batchesKept) {
+            String oldest = batchOrder.pollFirst();
+            if (oldest != null) {
+                batches.remove(oldest);
+            }
+        }
+        return batch;
+    }
+
+    public IngestBatch getBatch(String id) {
+        return batches.get(id);
+    }
+
+    public boolean isFull() {
+        return queue.remainingCapacity() == 0;
+    }
+
+    // Queues the record unless the queue is full
+    public boolean offer(IngestBatch batch, JsonNode record) {
+        if (!queue.offer(new QueuedRecord(batch, record))) {
+            return false;
+        }
+        batch.recordAccepted();
+        accepted.increment();
+        return true;
+    }
+
+    public void recordRejected(int count) {
+        rejected.add(count);
+    }
+
+    public void complete(IngestBatch batch, BatchAck.Outcome outcome) {
+        batch.close();
+        outcomes.get(outcome).increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ingest.records", accepted, LongAdder::sum).tag("result", "accepted").register(registry);
+        FunctionCounter.builder("ingest.records", rejected, LongAdder::sum).tag("result", "rejected").register(registry);
+        FunctionCounter.builder("ingest.records", processed, LongAdder::sum).tag("result", "processed").register(registry);
+        FunctionCounter.builder("ingest.records", failed, LongAdder::sum).tag("result", "failed").register(registry);
+        for (Map.Entry<BatchAck.Outcome, LongAdder> outcome : outcomes.entrySet()) {
+            FunctionCounter.builder("ingest.batches", outcome.getValue(), LongAdder::sum)
+                    .tag("outcome", outcome.getKey().name())
+                    .register(registry);
+        }
+        Gauge.builder("ingest.queue.depth", queue, BlockingQueue::size).register(registry);
+        Gauge.builder("ingest.queue.capacity", queue, q -> q.size() + q.remainingCapacity()).register(registry);
+    }
+
+    // No new records arrive once the HTTP drain is over; give the workers time to empty the queue
+    @Override
+    public void onDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} accepted ingest records were not processed before shutdown", queue.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.shutdownNow();
+    }
+
+    private void runWorker() {
+        while (running) {
+            QueuedRecord item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                process(item.record());
+                item.batch().recordProcessed();
+                processed.increment();
+            } catch (RuntimeException e) {
+                item.batch().recordFailed();
+                failed.increment();
+            }
+        }
+    }
+
+    // Stand-in for the real downstream work (persisting, forwarding to a broker, ...)
+    private void process(JsonNode record) {
+        processedFields.add(record.size());
+    }
+
+    private record QueuedRecord(IngestBatch batch, JsonNode record) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.gatewayapi.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+// Limits and sizing for POST /api/ingest (app.ingest.*)
+@ConfigurationProperties(prefix = "app.ingest")
+public record IngestProperties(
+        @DefaultValue("16MB") DataSize maxBodySize,
+        @DefaultValue("64KB") DataSize maxRecordSize,
+        @DefaultValue("32") int maxDepth,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("2") int workers,
+        @DefaultValue("100") int batchesKept) {
+}
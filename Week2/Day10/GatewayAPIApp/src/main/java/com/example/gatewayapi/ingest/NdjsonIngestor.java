@@ -0,0 +1,189 @@
+package com.example.gatewayapi.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an NDJSON body record by record with Jackson's streaming parser and hands each record
+ * to the IngestPipeline. Only one record is materialized at a time, and the body size, record
+ * size and nesting depth limits stop reading as soon as they are crossed.
+ */
+@Component
+public class NdjsonIngestor {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final ObjectMapper recordMapper;
+    private final IngestPipeline pipeline;
+    private final long maxBodyBytes;
+    private final long maxRecordBytes;
+
+    @Autowired
+    public NdjsonIngestor(IngestPipeline pipeline, IngestProperties properties) {
+        this(pipeline, properties.maxBodySize().toBytes(), properties.maxRecordSize().toBytes(), properties.maxDepth());
+    }
+
+    public NdjsonIngestor(IngestPipeline pipeline, long maxBodyBytes, long maxRecordBytes, int maxDepth) {
+        this.pipeline = pipeline;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxRecordBytes = maxRecordBytes;
+        // A single string longer than a record fails while it is decoded, before it is buffered whole
+        JsonFactory factory = JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder()
+                        .maxNestingDepth(maxDepth)
+                        .maxStringLength((int) Math.min(maxRecordBytes, Integer.MAX_VALUE))
+                        .build())
+                .build();
+        this.recordMapper = new ObjectMapper(factory);
+    }
+
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public BatchAck ingest(InputStream body) throws IOException {
+        IngestBatch batch = pipeline.newBatch();
+        List<BatchAck.RecordError> errors = new ArrayList<>();
+        int index = 0;
+        int rejected = 0;
+        int line = 1;
+        BatchAck.Outcome outcome = BatchAck.Outcome.ACCEPTED;
+        String message = null;
+
+        try (JsonParser parser = recordMapper.createParser(new LimitedInputStream(body, maxBodyBytes))) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                line = parser.currentTokenLocation().getLineNr();
+                long start = parser.currentTokenLocation().getByteOffset();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    rejected++;
+                    addError(errors, index++, line, "Record is not a JSON object");
+                    continue;
+                }
+
+                JsonNode record = readRecord(parser, start);
+                if (record == null) {
+                    rejected++;
+                    addError(errors, index++, line, "Record exceeds " + maxRecordBytes + " bytes");
+                    continue;
+                }
+                if (!pipeline.offer(batch, record)) {
+                    outcome = BatchAck.Outcome.QUEUE_FULL;
+                    message = "Processing queue is full; resend from record " + index;
+                    break;
+                }
+                index++;
+            }
+        } catch (BodyTooLargeException e) {
+            outcome = BatchAck.Outcome.TOO_LARGE;
+            message = e.getMessage();
+        } catch (JsonProcessingException e) {
+            outcome = BatchAck.Outcome.INVALID;
+            message = e.getOriginalMessage();
+            // Constraint violations carry no location; report the line the record started on
+            addError(errors, index, e.getLocation() == null ? line : e.getLocation().getLineNr(), message);
+        }
+
+        pipeline.recordRejected(rejected);
+        pipeline.complete(batch, outcome);
+        return new BatchAck(batch.getId(), outcome, index - rejected, rejected, index, List.copyOf(errors), message);
+    }
+
+    /**
+     * Copies the object starting at the current START_OBJECT token into a token buffer, checking the
+     * record size after every token, and only then builds the tree. Once the record passes
+     * maxRecordBytes the copy stops, the rest of the record is skipped token by token without being
+     * kept, and null is returned.
+     */
+    private JsonNode readRecord(JsonParser parser, long start) throws IOException {
+        TokenBuffer tokens = new TokenBuffer(parser);
+        boolean oversized = false;
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+        do {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (!oversized) {
+                oversized = parser.currentLocation().getByteOffset() - start > maxRecordBytes;
+                if (!oversized) {
+                    tokens.copyCurrentEvent(parser);
+                }
+            }
+        } while (depth > 0 && (token = parser.nextToken()) != null);
+
+        if (oversized) {
+            return null;
+        }
+        try (JsonParser buffered = tokens.asParser(parser.getCodec())) {
+            return recordMapper.readTree(buffered);
+        }
+    }
+
+    private static void addError(List<BatchAck.RecordError> errors, int record, int line, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new BatchAck.RecordError(record, line, error));
+        }
+    }
+
+    static class BodyTooLargeException extends IOException {
+
+        BodyTooLargeException(long limit) {
+            super("Request body exceeds " + limit + " bytes");
+        }
+    }
+
+    // Fails the read as soon as more than limit bytes have been consumed
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(long n) throws BodyTooLargeException {
+            count += n;
+            if (count > limit) {
+                throw new BodyTooLargeException(limit);
+            }
+        }
+    }
+}
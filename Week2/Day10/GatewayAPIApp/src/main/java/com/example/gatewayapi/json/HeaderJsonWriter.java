@@ -0,0 +1,81 @@
+package com.example.gatewayapi.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Enumeration;
+
+/**
+ * Streams the header echo and gateway-info responses straight to the response body with a
+ * JsonGenerator, instead of copying headers into a Map for Jackson to reflect over.
+ * The fixed gateway-info field names are encoded to UTF-8 once, at class load.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HeaderJsonWriter {
+
+    private static final SerializedString X_FORWARDED_FOR = new SerializedString("X-Forwarded-For");
+    private static final SerializedString X_FORWARDED_PROTO = new SerializedString("X-Forwarded-Proto");
+    private static final SerializedString X_FORWARDED_HOST = new SerializedString("X-Forwarded-Host");
+    private static final SerializedString X_REAL_IP = new SerializedString("X-Real-IP");
+    private static final SerializedString HOST = new SerializedString("Host");
+    private static final SerializedString PROTOCOL = new SerializedString("Protocol");
+    private static final SerializedString SCHEME = new SerializedString("Scheme");
+    private static final SerializedString SERVER_NAME = new SerializedString("ServerName");
+
+    private final JsonFactory jsonFactory;
+
+    public HeaderJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    // Every request header as a JSON object; repeated headers report their first value
+    public void writeHeaders(HttpServletRequest request, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            Enumeration<String> names = request.getHeaderNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                generator.writeFieldName(name);
+                generator.writeString(request.getHeader(name));
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    // The forwarding headers set by the gateway plus how the request reached this pod; missing headers are null
+    public void writeGatewayInfo(HttpServletRequest request, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            writeField(generator, X_FORWARDED_FOR, request.getHeader("X-Forwarded-For"));
+            writeField(generator, X_FORWARDED_PROTO, request.getHeader("X-Forwarded-Proto"));
+            writeField(generator, X_FORWARDED_HOST, request.getHeader("X-Forwarded-Host"));
+            writeField(generator, X_REAL_IP, request.getHeader("X-Real-IP"));
+            writeField(generator, HOST, request.getHeader("Host"));
+            writeField(generator, PROTOCOL, request.getProtocol());
+            writeField(generator, SCHEME, request.getScheme());
+            writeField(generator, SERVER_NAME, request.getServerName());
+            generator.writeEndObject();
+        }
+    }
+
+    // Closing the generator flushes it but leaves the servlet stream to the container
+    private JsonGenerator open(OutputStream out) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeField(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+}
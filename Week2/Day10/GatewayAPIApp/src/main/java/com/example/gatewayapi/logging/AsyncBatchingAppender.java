@@ -0,0 +1,189 @@
+package com.example.gatewayapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Console appender that moves all formatting and I/O off the logging thread. Events go into a
+ * bounded queue; one writer thread drains up to maxBatch of them, encodes them into a single
+ * buffer and writes it to stdout with one call.
+ *
+ * The calling thread only captures its thread name and MDC. Message arguments are formatted
+ * later, on the writer thread, so they must not be changed after they are logged.
+ *
+ * When the queue is full, DROP discards the event and counts it, while BLOCK waits for space.
+ * WARN and ERROR events always wait unless neverDropWarnings is turned off.
+ */
+public class AsyncBatchingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final long POLL_MS = 100;
+    private static final long STOP_TIMEOUT_MS = 2000;
+
+    private Encoder<ILoggingEvent> encoder;
+    private int queueSize = 8192;
+    private int maxBatch = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private boolean neverDropWarnings = true;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private OutputStream out;
+    private Thread writer;
+    private volatile boolean running;
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setNeverDropWarnings(boolean neverDropWarnings) {
+        this.neverDropWarnings = neverDropWarnings;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queueSize;
+    }
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for appender [" + name + "]");
+            return;
+        }
+        if (queueSize < 1 || maxBatch < 1) {
+            addError("queueSize and maxBatch must be positive for appender [" + name + "]");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        out = new FileOutputStream(FileDescriptor.out);
+        running = true;
+        writer = new Thread(this::runWriter, "async-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        // The writer drains whatever is still queued before it exits
+        running = false;
+        try {
+            writer.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            addWarn(queue.size() + " log events were not written before shutdown");
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Both are computed lazily from the current thread, so capture them before handing off
+        event.getThreadName();
+        event.getMDCPropertyMap();
+
+        boolean mustWait = overflowPolicy == OverflowPolicy.BLOCK
+                || (neverDropWarnings && event.getLevel().isGreaterOrEqual(Level.WARN));
+        if (!mustWait) {
+            if (!queue.offer(event)) {
+                dropped.increment();
+            }
+            return;
+        }
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private void runWriter() {
+        List<ILoggingEvent> batch = new ArrayList<>(maxBatch);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ILoggingEvent first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Only stop() ends the writer; it re-checks running on the next pass
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+
+            for (ILoggingEvent event : batch) {
+                try {
+                    buffer.writeBytes(encoder.encode(event));
+                } catch (RuntimeException e) {
+                    addError("Failed to encode log event", e);
+                }
+            }
+            try {
+                buffer.writeTo(out);
+                out.flush();
+            } catch (IOException e) {
+                addError("Failed to write log batch", e);
+            }
+
+            written.add(batch.size());
+            batches.increment();
+            batch.clear();
+            buffer.reset();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gatewayapi.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes the counters of every AsyncBatchingAppender on the root logger as metrics,
+ * e.g. /actuator/metrics/logging.async.dropped.
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+                loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof AsyncBatchingAppender appender) {
+                bind(registry, appender);
+            }
+        }
+    }
+
+    private static void bind(MeterRegistry registry, AsyncBatchingAppender appender) {
+        FunctionCounter.builder("logging.async.dropped", appender, AsyncBatchingAppender::getDroppedCount)
+                .tag("appender", appender.getName())
+                .description("Log events discarded because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("logging.async.written", appender, AsyncBatchingAppender::getWrittenCount)
+                .tag("appender", appender.getName())
+                .description("Log events written by the writer thread")
+                .register(registry);
+        FunctionCounter.builder("logging.async.batches", appender, AsyncBatchingAppender::getBatchCount)
+                .tag("appender", appender.getName())
+                .description("Batched writes to the output")
+                .register(registry);
+        Gauge.builder("logging.async.queue.depth", appender, AsyncBatchingAppender::getQueueDepth)
+                .tag("appender", appender.getName())
+                .description("Log events waiting to be written")
+                .register(registry);
+        Gauge.builder("logging.async.queue.capacity", appender, AsyncBatchingAppender::getQueueCapacity)
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.gatewayapi.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which request bodies are logged. It returns a placeholder that the async appender
+ * renders on its writer thread, so a body is only turned into a string when it was sampled,
+ * and then only up to maxChars: maps, lists and arrays are walked element by element, and the walk
+ * stops as soon as maxChars are written.
+ */
+@Component
+public class BodyLogSampler {
+
+    private static final Object NOT_SAMPLED = new Object() {
+        @Override
+        public String toString() {
+            return "<not sampled>";
+        }
+    };
+
+    private final double sampleRate;
+    private final int maxChars;
+
+    public BodyLogSampler(@Value("${app.logging.body-sample-rate:0.01}") double sampleRate,
+                          @Value("${app.logging.body-max-chars:512}") int maxChars) {
+        this.sampleRate = sampleRate;
+        this.maxChars = maxChars;
+    }
+
+    // The body must not be modified after this call; it is rendered later on another thread
+    public Object sample(Object body) {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return NOT_SAMPLED;
+        }
+        return new CappedBody(body, maxChars);
+    }
+
+    private record CappedBody(Object body, int maxChars) {
+
+        // Renders like Map/List toString, but stops walking the body once maxChars are written
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(Math.min(maxChars, 1024) + 32);
+            if (!append(out, body)) {
+                out.append("... (truncated at ").append(maxChars).append(" chars)");
+            }
+            return out.toString();
+        }
+
+        // False once the builder is full; the rest of the value is never visited
+        private boolean append(StringBuilder out, Object value) {
+            if (value instanceof Map<?, ?> map) {
+                if (!text(out, "{")) {
+                    return false;
+                }
+                String separator = "";
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!text(out, separator) || !append(out, entry.getKey()) || !text(out, "=")
+                            || !append(out, entry.getValue())) {
+                        return false;
+                    }
+                    separator = ", ";
+                }
+                return text(out, "}");
+            }
+            if (value instanceof Collection<?> || value instanceof Object[]) {
+                Collection<?> items = value instanceof Object[] array ? Arrays.asList(array) : (Collection<?>) value;
+                if (!text(out, "[")) {
+                    return false;
+                }
+                String separator = "";
+                for (Object item : items) {
+                    if (!text(out, separator) || !append(out, item)) {
+                        return false;
+                    }
+                    separator = ", ";
+                }
+                return text(out, "]");
+            }
+            return text(out, value instanceof CharSequence chars ? chars : String.valueOf(value));
+        }
+
+        private boolean text(StringBuilder out, CharSequence text) {
+            int room = maxChars - out.length();
+            if (text.length() <= room) {
+                out.append(text);
+                return true;
+            }
+            out.append(text, 0, room);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.gatewayapi.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Works out which client a request counts against. The socket peer is the client unless it is a
+ * trusted proxy. In that case X-Forwarded-For is read right to left, skipping trusted hops, and the
+ * first address no trusted proxy added itself is the client. Anything further left was written by
+ * the client and is ignored. X-Real-IP is used when a trusted proxy sends no X-Forwarded-For.
+ *
+ * Clients are keyed by a long: an IPv4 address whole, an IPv6 address by its prefix (/64 by
+ * default), because one host usually owns a whole /64 and could otherwise rotate through it.
+ * Only IP literals are parsed, so no header value can cause a DNS lookup.
+ */
+final class ClientIpResolver {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    static final String X_REAL_IP = "X-Real-IP";
+
+    // IPv4 keys have the upper 32 bits set; no IPv6 unicast prefix starts with ffff:ffff
+    private static final long IPV4 = 0xFFFF_FFFF_0000_0000L;
+    // 0 marks an empty slot in the limiter's table, so the all-zero IPv6 prefix is stored as 1
+    private static final long ZERO_PREFIX = 1L;
+    // Used when even the socket address does not parse; 0.0.0.0
+    static final long UNKNOWN = IPV4;
+
+    private final List<Cidr> trustedProxies;
+    private final int ipv6PrefixLength;
+    private final long ipv6Mask;
+
+    ClientIpResolver(List<String> trustedProxies, int ipv6PrefixLength) {
+        if (ipv6PrefixLength < 1 || ipv6PrefixLength > 64) {
+            throw new IllegalArgumentException("ipv6-prefix-length must be between 1 and 64, was " + ipv6PrefixLength);
+        }
+        this.trustedProxies = trustedProxies.stream()
+                .filter(cidr -> !cidr.isBlank())
+                .map(Cidr::parse)
+                .toList();
+        this.ipv6PrefixLength = ipv6PrefixLength;
+        this.ipv6Mask = -1L << (64 - ipv6PrefixLength);
+    }
+
+    long resolve(HttpServletRequest request) {
+        byte[] peer = parse(request.getRemoteAddr());
+        if (peer == null) {
+            return UNKNOWN;
+        }
+        if (!isTrusted(peer)) {
+            return keyOf(peer);
+        }
+
+        Enumeration<String> forwarded = request.getHeaders(X_FORWARDED_FOR);
+        if (forwarded != null && forwarded.hasMoreElements()) {
+            // Repeated headers are one list, in order; the last proxy appended to the last header
+            String chain = forwarded.nextElement();
+            while (forwarded.hasMoreElements()) {
+                chain = chain + "," + forwarded.nextElement();
+            }
+            byte[] client = peer;
+            int end = chain.length();
+            while (true) {
+                int comma = chain.lastIndexOf(',', end - 1);
+                byte[] hop = parse(chain, comma + 1, end);
+                if (hop == null) {
+                    // A trusted proxy passed on garbage; the hop that forwarded it is all we know
+                    return keyOf(client);
+                }
+                client = hop;
+                if (!isTrusted(hop) || comma < 0) {
+                    // Either the first untrusted hop, or every hop is trusted and the request started inside
+                    return keyOf(hop);
+                }
+                end = comma;
+            }
+        }
+
+        byte[] realIp = parse(request.getHeader(X_REAL_IP));
+        return keyOf(realIp != null ? realIp : peer);
+    }
+
+    boolean isTrusted(byte[] address) {
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long keyOf(byte[] address) {
+        if (address.length == 4) {
+            return IPV4 | ((address[0] & 0xFFL) << 24 | (address[1] & 0xFFL) << 16 | (address[2] & 0xFFL) << 8
+                    | (address[3] & 0xFFL));
+        }
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix = prefix << 8 | (address[i] & 0xFFL);
+        }
+        prefix &= ipv6Mask;
+        return prefix == 0 ? ZERO_PREFIX : prefix;
+    }
+
+    // The client as it appears in metrics: an IPv4 address, or an IPv6 prefix such as 2001:db8:0:1::/64
+    String describe(long key) {
+        if ((key & IPV4) == IPV4) {
+            return ((key >>> 24) & 0xFF) + "." + ((key >>> 16) & 0xFF) + "." + ((key >>> 8) & 0xFF) + "." + (key & 0xFF);
+        }
+        long prefix = key == ZERO_PREFIX ? 0 : key;
+        return Long.toHexString(prefix >>> 48) + ":" + Long.toHexString((prefix >>> 32) & 0xFFFF) + ":"
+                + Long.toHexString((prefix >>> 16) & 0xFFFF) + ":" + Long.toHexString(prefix & 0xFFFF)
+                + "::/" + ipv6PrefixLength;
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal as proxies write it: surrounding spaces, [brackets] and a port
+     * are tolerated. Returns null for anything else, including host names and "unknown".
+     */
+    static byte[] parse(String value) {
+        return value == null ? null : parse(value, 0, value.length());
+    }
+
+    // Parses value[from, to) without copying it, since X-Forwarded-For is walked on every request
+    static byte[] parse(String value, int from, int to) {
+        while (from < to && Character.isWhitespace(value.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(value.charAt(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return null;
+        }
+        if (value.charAt(from) == '[') {
+            int close = value.indexOf(']', from);
+            return close > from + 1 && close < to ? parseIpv6(value.substring(from + 1, close)) : null;
+        }
+        int colon = value.indexOf(':', from);
+        if (colon < 0 || colon >= to) {
+            return parseIpv4(value, from, to);
+        }
+        int dot = value.indexOf('.', from);
+        if (value.lastIndexOf(':', to - 1) == colon && dot > 0 && dot < colon) {
+            return parseIpv4(value, from, colon);
+        }
+        return parseIpv6(value.substring(from, to));
+    }
+
+    private static byte[] parseIpv4(String text, int from, int to) {
+        byte[] address = new byte[4];
+        int part = 0;
+        int value = -1;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else if (c == '.' && value >= 0 && part < 3) {
+                address[part++] = (byte) value;
+                value = -1;
+            } else {
+                return null;
+            }
+        }
+        if (value < 0 || part != 3) {
+            return null;
+        }
+        address[3] = (byte) value;
+        return address;
+    }
+
+    private static byte[] parseIpv6(String text) {
+        if (text.isEmpty() || text.length() > 45) {
+            return null;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != ':' && c != '.') {
+                return null;
+            }
+        }
+        try {
+            // Brackets make InetAddress treat the text strictly as a literal; it never falls back to DNS
+            return InetAddress.getByName("[" + text + "]").getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] network = ClientIpResolver.parse(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Not an IP address or CIDR range: " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1).strip());
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Prefix length out of range: " + cidr);
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean matches(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
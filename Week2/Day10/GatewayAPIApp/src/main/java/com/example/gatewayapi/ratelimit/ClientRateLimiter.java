@@ -0,0 +1,184 @@
+package com.example.gatewayapi.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Per-client token buckets in a fixed-size, lock-free table. Each bucket is one number, its
+ * theoretical arrival time (GCRA): a request is admitted when pushing that time forward by one
+ * emission interval leaves it no more than burst intervals ahead of now. A full bucket is a TAT at
+ * or before now, so a client that has gone quiet needs no refill and no timer.
+ *
+ * The table is an open-addressed AtomicLongArray of (key, tat, hits) slots, sized once at startup.
+ * Each slot is updated with its own CAS, so threads only contend when they hit the same client.
+ * A new client that finds no free slot within its probe window takes over the slot there with the
+ * oldest TAT. That is usually a full, idle bucket and loses nothing. Memory stays at
+ * 24 bytes per slot however many distinct addresses arrive, and there is no per-client allocation.
+ *
+ * Limits are approximate in two rare cases: a thread that looked up a slot just before another
+ * client took it over charges the new owner once, and an evicted client that was still in debt
+ * comes back with a full bucket (counted as an "active" eviction).
+ */
+final class ClientRateLimiter {
+
+    private static final int STRIDE = 3;
+    private static final int KEY = 0;
+    private static final int TAT = 1;
+    private static final int HITS = 2;
+    private static final int PROBE_WINDOW = 8;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int burst;
+    private final long origin = System.nanoTime();
+
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder activeEvictions = new LongAdder();
+
+    ClientRateLimiter(double requestsPerSecond, int burst, int maxClients) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("requests-per-second and burst must be positive");
+        }
+        int capacity = Integer.highestOneBit(Math.max(PROBE_WINDOW, maxClients - 1)) << 1;
+        this.table = new AtomicLongArray(capacity * STRIDE);
+        this.mask = capacity - 1;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / requestsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.burst = burst;
+    }
+
+    /**
+     * Charges one request to the client and returns the backlog it leaves behind: how far the
+     * client's TAT is ahead of now, in nanoseconds. The request is admitted if {@link #admitted}
+     * holds for that value; a rejected request is not charged.
+     */
+    long tryAcquire(long key) {
+        return tryAcquire(key, System.nanoTime() - origin);
+    }
+
+    long tryAcquire(long key, long now) {
+        int base = slotFor(key, now) * STRIDE;
+        table.getAndIncrement(base + HITS);
+        while (true) {
+            long tat = table.get(base + TAT);
+            long backlog = Math.max(tat, now) + intervalNanos - now;
+            if (backlog > burstNanos || table.compareAndSet(base + TAT, tat, now + backlog)) {
+                return backlog;
+            }
+        }
+    }
+
+    boolean admitted(long backlog) {
+        return backlog <= burstNanos;
+    }
+
+    // Requests the client could still send right now
+    int remaining(long backlog) {
+        return (int) Math.max(0, (burstNanos - backlog) / intervalNanos);
+    }
+
+    // Until the bucket is full again
+    long resetNanos(long backlog) {
+        return Math.min(backlog, burstNanos);
+    }
+
+    // Until the next request would be admitted; only meaningful when rejected
+    long retryAfterNanos(long backlog) {
+        return Math.max(0, backlog - burstNanos);
+    }
+
+    int burst() {
+        return burst;
+    }
+
+    long windowNanos() {
+        return burstNanos;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long idleEvictions() {
+        return idleEvictions.sum();
+    }
+
+    long activeEvictions() {
+        return activeEvictions.sum();
+    }
+
+    /**
+     * Visits every occupied slot with its key and the requests counted since the last visit, for the
+     * top-client scan. Returns the number of occupied slots.
+     */
+    int drainHits(LongBinaryOperator visitor) {
+        int occupied = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            int base = slot * STRIDE;
+            long key = table.get(base + KEY);
+            if (key != 0) {
+                occupied++;
+                long hits = table.getAndSet(base + HITS, 0);
+                if (hits > 0) {
+                    visitor.applyAsLong(key, hits);
+                }
+            }
+        }
+        return occupied;
+    }
+
+    private int slotFor(long key, long now) {
+        int start = hash(key);
+        while (true) {
+            int victim = -1;
+            long victimTat = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (start + i) & mask;
+                int base = slot * STRIDE;
+                long current = table.get(base + KEY);
+                if (current == key) {
+                    return slot;
+                }
+                if (current == 0) {
+                    if (table.compareAndSet(base + KEY, 0, key)) {
+                        return slot;
+                    }
+                    if (table.get(base + KEY) == key) {
+                        return slot;
+                    }
+                    continue;
+                }
+                long tat = table.get(base + TAT);
+                if (tat < victimTat) {
+                    victim = slot;
+                    victimTat = tat;
+                }
+            }
+            if (victim < 0) {
+                continue;
+            }
+            int base = victim * STRIDE;
+            long owner = table.get(base + KEY);
+            if (owner == key) {
+                return victim;
+            }
+            if (owner != 0 && table.get(base + TAT) == victimTat
+                    && table.compareAndSet(base + KEY, owner, key)) {
+                table.set(base + TAT, 0);
+                table.set(base + HITS, 0);
+                (victimTat <= now ? idleEvictions : activeEvictions).increment();
+                return victim;
+            }
+            // Lost the race for the victim (or it changed); look again, the client may be there now
+        }
+    }
+
+    // Fibonacci hashing; spreads sequential addresses from one subnet across the table
+    private int hash(long key) {
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
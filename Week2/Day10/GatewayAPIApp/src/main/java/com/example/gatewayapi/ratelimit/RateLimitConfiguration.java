@@ -0,0 +1,70 @@
+package com.example.gatewayapi.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires the per-client rate limiter in front of every request except the excluded paths. It runs
+ * right after the drain filter and before admission control, so a single noisy client is turned
+ * away with 429 before it can take concurrency slots from everyone else. Servlet only.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    @Bean
+    ClientIpResolver clientIpResolver(RateLimitProperties properties) {
+        return new ClientIpResolver(properties.trustedProxies(), properties.ipv6PrefixLength());
+    }
+
+    @Bean
+    ClientRateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new ClientRateLimiter(properties.requestsPerSecond(), properties.burst(), properties.maxClients());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ClientRateLimiter limiter, ClientIpResolver resolver,
+                                                                   RateLimitProperties properties) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(limiter, resolver, properties.excluded()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // /actuator/metrics/ratelimit.top.clients lists the busiest clients by rank
+    @Bean
+    public TopClients topClients(ClientRateLimiter limiter, ClientIpResolver resolver, RateLimitProperties properties) {
+        return new TopClients(limiter, resolver, properties.topClients(), properties.topClientsInterval());
+    }
+
+    // /actuator/metrics/ratelimit.requests?tag=result:rejected and friends
+    @Bean
+    public MeterBinder rateLimitMetrics(ClientRateLimiter limiter, FilterRegistrationBean<RateLimitFilter> rateLimitFilter) {
+        RateLimitFilter filter = rateLimitFilter.getFilter();
+        return registry -> {
+            FunctionCounter.builder("ratelimit.requests", filter, RateLimitFilter::getAllowedCount)
+                    .tag("result", "allowed")
+                    .description("Requests checked against the per-client rate limit")
+                    .register(registry);
+            FunctionCounter.builder("ratelimit.requests", filter, RateLimitFilter::getRejectedCount)
+                    .tag("result", "rejected")
+                    .register(registry);
+            FunctionCounter.builder("ratelimit.evictions", limiter, ClientRateLimiter::idleEvictions)
+                    .tag("cause", "idle")
+                    .description("Buckets handed to a new client; idle ones were already full")
+                    .register(registry);
+            FunctionCounter.builder("ratelimit.evictions", limiter, ClientRateLimiter::activeEvictions)
+                    .tag("cause", "active")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gatewayapi.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits each client to requests-per-second with a burst allowance, keyed by the address
+ * ClientIpResolver finds behind the trusted proxies. Every limited response carries the
+ * RateLimit-Limit, -Remaining, -Reset and -Policy headers (IETF httpapi draft), so well-behaved
+ * clients can pace themselves. Over the limit the answer is 429 with Retry-After, before any
+ * other filter or handler has done work for the request.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT = "RateLimit-Limit";
+    static final String REMAINING = "RateLimit-Remaining";
+    static final String RESET = "RateLimit-Reset";
+    static final String POLICY = "RateLimit-Policy";
+
+    private final ClientRateLimiter limiter;
+    private final ClientIpResolver resolver;
+    private final List<PathPattern> excluded;
+    private final String limitHeader;
+    private final String policyHeader;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    RateLimitFilter(ClientRateLimiter limiter, ClientIpResolver resolver, List<String> excluded) {
+        this.limiter = limiter;
+        this.resolver = resolver;
+        this.excluded = excluded.stream()
+                .filter(pattern -> !pattern.isBlank())
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.limitHeader = String.valueOf(limiter.burst());
+        this.policyHeader = limiter.burst() + ";w=" + seconds(limiter.windowNanos());
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (PathPattern pattern : excluded) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long backlog = limiter.tryAcquire(resolver.resolve(request));
+        response.setHeader(LIMIT, limitHeader);
+        response.setHeader(POLICY, policyHeader);
+        response.setIntHeader(REMAINING, limiter.remaining(backlog));
+        response.setHeader(RESET, String.valueOf(seconds(limiter.resetNanos(backlog))));
+
+        if (limiter.admitted(backlog)) {
+            allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        long retryAfter = Math.max(1, seconds(limiter.retryAfterNanos(backlog)));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit of "
+                + limitHeader + " requests per " + seconds(limiter.windowNanos()) + "s exceeded\",\"retryAfter\":"
+                + retryAfter + "}");
+    }
+
+    // Whole seconds, rounded up: a client told 0 would retry immediately and be refused again
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gatewayapi.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Settings for RateLimitFilter (app.rate-limit.*)
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") double requestsPerSecond,
+        @DefaultValue("40") int burst,
+        @DefaultValue("131072") int maxClients,
+        @DefaultValue({"127.0.0.0/8", "::1/128", "10.244.0.0/16"})
+        List<String> trustedProxies,
+        @DefaultValue("64") int ipv6PrefixLength,
+        @DefaultValue({"/actuator/**", "/health", "/api/health"}) List<String> excluded,
+        @DefaultValue("10") int topClients,
+        @DefaultValue("10s") Duration topClientsInterval) {
+}
@@ -0,0 +1,106 @@
+package com.example.gatewayapi.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The clients sending the most requests, as ratelimit.top.clients{rank,client} in requests per
+ * second. A background scan reads and resets the per-slot hit counters once per interval, so the
+ * request path only pays for one increment. Only the current top N are published, which keeps the
+ * number of series fixed however many clients there are.
+ */
+public class TopClients implements MeterBinder {
+
+    private final ClientRateLimiter limiter;
+    private final ClientIpResolver resolver;
+    private final int size;
+    private final Duration interval;
+
+    private volatile int clients;
+    private long lastScan = System.nanoTime();
+    private MultiGauge gauge;
+    private ScheduledExecutorService scanner;
+
+    TopClients(ClientRateLimiter limiter, ClientIpResolver resolver, int size, Duration interval) {
+        this.limiter = limiter;
+        this.resolver = resolver;
+        this.size = size;
+        this.interval = interval;
+    }
+
+    int clients() {
+        return clients;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratelimit.clients", this, TopClients::clients)
+                .description("Clients holding a bucket in the rate limiter table at the last scan")
+                .register(registry);
+        Gauge.builder("ratelimit.clients.capacity", limiter, ClientRateLimiter::capacity)
+                .description("Buckets in the rate limiter table")
+                .register(registry);
+        gauge = MultiGauge.builder("ratelimit.top.clients")
+                .description("Requests per second of the busiest clients over the last scan interval")
+                .register(registry);
+        if (scanner == null && size > 0) {
+            scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ratelimit-top-clients");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = interval.toMillis();
+            scanner.scheduleWithFixedDelay(this::scan, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void scan() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastScan) / 1e9);
+        lastScan = now;
+
+        // Min-heap of (key, hits): the smallest of the current top N is the one to displace
+        PriorityQueue<long[]> heap = new PriorityQueue<>(size + 1, Comparator.comparingLong(entry -> entry[1]));
+        clients = limiter.drainHits((key, hits) -> {
+            if (heap.size() < size) {
+                heap.add(new long[] {key, hits});
+            } else if (hits > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new long[] {key, hits});
+            }
+            return hits;
+        });
+
+        List<long[]> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+        List<MultiGauge.Row<?>> rows = new ArrayList<>(ranked.size());
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            long[] entry = ranked.get(rank);
+            rows.add(MultiGauge.Row.of(Tags.of("rank", String.valueOf(rank + 1), "client", resolver.describe(entry[0])),
+                    entry[1] / seconds));
+        }
+        if (gauge != null) {
+            gauge.register(rows, true);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scanner != null) {
+            scanner.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Compares platform-thread vs virtual-thread mode for blocking endpoints.
+# Parks BLOCKED requests on /simulate/slowstart (45s sleep each), then measures
+# latency of PROBES quick /info requests while those are still in flight.
+#
+# Usage: ./loadtest-threads.sh [base-url] [blocked-requests] [probe-requests]
+# Run it once against a pod with VIRTUAL_THREADS_ENABLED=false and once with true.
+#
+# Run the pod with ADMISSION_ENABLED=false. Admission control (on by default) marks /simulate/slowstart
+# as sheddable and admits only about 10 of them at its initial limit of 20; the rest get an immediate
+# 503, so the thread pool is never filled and both modes look the same.
+#   kubectl set env deploy/health-probes-app ADMISSION_ENABLED=false VIRTUAL_THREADS_ENABLED=true
+
+BASE_URL=${1:-http://localhost:8080}
+BLOCKED=${2:-300}
+PROBES=${3:-200}
+PROBE_TIMEOUT=10
+
+echo "=========================================="
+echo "Blocking-endpoint load test: $BASE_URL"
+echo "=========================================="
+echo "Blocked requests : $BLOCKED x /simulate/slowstart"
+echo "Probe requests   : $PROBES x /info (timeout ${PROBE_TIMEOUT}s)"
+echo ""
+
+# Park the blocking requests; a shed one returns its 503 at once
+SHED=$(mktemp)
+for i in $(seq 1 "$BLOCKED"); do
+    curl -s -o /dev/null --max-time 60 -w "%{http_code}\n" "$BASE_URL/simulate/slowstart" >> "$SHED" &
+done
+BLOCKED_PIDS=$(jobs -p)
+sleep 3
+
+# Fire the probe requests 20 at a time and record per-request latency
+RESULTS=$(mktemp)
+seq 1 "$PROBES" | xargs -P 20 -I{} \
+    curl -s -o /dev/null --max-time "$PROBE_TIMEOUT" -w "%{http_code} %{time_total}\n" "$BASE_URL/info" >> "$RESULTS"
+
+OK=$(awk '$1 == 200' "$RESULTS" | wc -l)
+FAILED=$((PROBES - OK))
+SORTED=$(awk '$1 == 200 {print $2}' "$RESULTS" | sort -n)
+
+percentile() {
+    echo "$SORTED" | awk -v p="$1" 'NF {v[NR]=$1} END {if (NR == 0) {print "n/a"; exit} i=int((NR*p)+0.999); if (i<1) i=1; printf "%.0fms\n", v[i]*1000}'
+}
+
+echo "Successful probes: $OK / $PROBES (failed or timed out: $FAILED)"
+echo "p50 latency      : $(percentile 0.50)"
+echo "p99 latency      : $(percentile 0.99)"
+echo "max latency      : $(percentile 1.00)"
+
+SHED_COUNT=$(grep -c '^503' "$SHED")
+if [ "$SHED_COUNT" -gt 0 ]; then
+    echo ""
+    echo "WARNING: $SHED_COUNT of $BLOCKED blocked requests were shed with 503 by admission control;"
+    echo "         restart the pod with ADMISSION_ENABLED=false to measure the thread pool"
+fi
+
+rm -f "$RESULTS" "$SHED"
+kill $BLOCKED_PIDS 2>/dev/null
+wait 2>/dev/null
@@ -0,0 +1,90 @@
+package com.example.healthprobes;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Health indicator whose check runs in the background (see HealthRefreshEngine).
+ * health() only reads the last published snapshot, so probes never wait on a dependency.
+ */
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    private final String name;
+    private final HealthCacheProperties properties;
+    private final AtomicReference<Snapshot> snapshot;
+
+    protected CachedHealthIndicator(String name, HealthCacheProperties properties) {
+        this.name = name;
+        this.properties = properties;
+        this.snapshot = new AtomicReference<>(Snapshot.initial());
+    }
+
+    // The actual (possibly slow) dependency check, run on the refresh engine's threads
+    protected abstract Health check();
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getInterval() {
+        return properties.intervalFor(name);
+    }
+
+    @Override
+    public Health health() {
+        Snapshot current = snapshot.get();
+        if (current.checkedAt() == null) {
+            return Health.unknown()
+                    .withDetail("reason", "Awaiting first background check")
+                    .build();
+        }
+
+        long ageMs = Duration.between(current.checkedAt(), Instant.now()).toMillis();
+        return Health.status(current.reported().getStatus())
+                .withDetails(current.reported().getDetails())
+                .withDetail("checkedAt", current.checkedAt().toString())
+                .withDetail("ageMs", ageMs)
+                .withDetail("stale", ageMs > properties.staleAfter().toMillis())
+                .withDetail("consecutiveFailures", current.consecutiveFailures())
+                .build();
+    }
+
+    // Called by the refresh engine with the raw result of check(); only one refresh runs at a time per indicator
+    void record(Health result) {
+        Snapshot previous = snapshot.get();
+        boolean up = Status.UP.equals(result.getStatus());
+
+        int failures = up ? 0 : previous.consecutiveFailures() + 1;
+        int successes = up ? previous.consecutiveSuccesses() + 1 : 0;
+
+        // Hysteresis: keep reporting the previous state until the threshold is crossed
+        Health reported;
+        if (previous.checkedAt() == null) {
+            reported = result;
+        } else if (up) {
+            reported = successes >= properties.successThreshold() || isUp(previous.reported())
+                    ? result : previous.reported();
+        } else {
+            reported = failures >= properties.failureThreshold() || !isUp(previous.reported())
+                    ? result : previous.reported();
+        }
+
+        snapshot.set(new Snapshot(reported, Instant.now(), failures, successes));
+    }
+
+    private static boolean isUp(Health health) {
+        return Status.UP.equals(health.getStatus());
+    }
+
+    private record Snapshot(Health reported, Instant checkedAt, int consecutiveFailures, int consecutiveSuccesses) {
+
+        static Snapshot initial() {
+            return new Snapshot(null, null, 0, 0);
+        }
+    }
+}
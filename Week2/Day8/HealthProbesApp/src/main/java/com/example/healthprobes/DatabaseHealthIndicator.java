@@ -1,18 +1,21 @@
 package com.example.healthprobes;
 
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 import java.util.Random;
 
 @Component
-public class DatabaseHealthIndicator implements HealthIndicator {
+public class DatabaseHealthIndicator extends CachedHealthIndicator {
     
     private final Random random = new Random();
     
+    public DatabaseHealthIndicator(HealthCacheProperties properties) {
+        super("database", properties);
+    }
+    
     @Override
-    public Health health() {
+    protected Health check() {
         // Simulate database health check
         boolean dbAvailable = checkDatabaseConnection();
         
@@ -1,14 +1,17 @@
 package com.example.healthprobes;
 
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ExternalServiceHealthIndicator implements HealthIndicator {
+public class ExternalServiceHealthIndicator extends CachedHealthIndicator {
+    
+    public ExternalServiceHealthIndicator(HealthCacheProperties properties) {
+        super("externalService", properties);
+    }
     
     @Override
-    public Health health() {
+    protected Health check() {
         // Simulate external service health check (e.g., payment gateway, email service)
         boolean serviceAvailable = checkExternalService();
         
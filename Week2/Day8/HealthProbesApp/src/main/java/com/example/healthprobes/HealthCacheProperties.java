@@ -0,0 +1,26 @@
+package com.example.healthprobes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Settings for the background health refresh engine (health.cache.*)
+@ConfigurationProperties(prefix = "health.cache")
+public record HealthCacheProperties(
+        @DefaultValue("10s") Duration defaultInterval,
+        @DefaultValue("2s") Duration timeout,
+        @DefaultValue("3") int failureThreshold,
+        @DefaultValue("1") int successThreshold,
+        @DefaultValue("30s") Duration staleAfter,
+        Map<String, Duration> intervals) {
+
+    public HealthCacheProperties {
+        intervals = intervals == null ? Map.of() : Map.copyOf(intervals);
+    }
+
+    public Duration intervalFor(String indicatorName) {
+        return intervals.getOrDefault(indicatorName, defaultInterval);
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.healthprobes;
 
+import com.example.healthprobes.readiness.AdaptiveReadiness;
+import com.example.healthprobes.readiness.AdaptiveReadinessProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.boot.availability.AvailabilityChangeEvent;
 import org.springframework.boot.availability.LivenessState;
-import org.springframework.boot.availability.ReadinessState;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.time.LocalDateTime;
@@ -14,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @SpringBootApplication
+@EnableConfigurationProperties({HealthCacheProperties.class, AdaptiveReadinessProperties.class})
 public class HealthProbesApplication {
 
     public static void main(String[] args) {
@@ -27,8 +30,10 @@ class HealthController {
     @Autowired
     private ApplicationEventPublisher eventPublisher;
     
-    private boolean isReady = true;
-    private boolean isLive = true;
+    @Autowired
+    private AdaptiveReadiness readiness;
+    
+    private volatile boolean isLive = true;
     
     @GetMapping("/")
     public String home() {
@@ -41,7 +46,7 @@ class HealthController {
         response.put("application", "Health Probes Demo");
         response.put("version", "1.0.0");
         response.put("timestamp", LocalDateTime.now().toString());
-        response.put("ready", isReady);
+        response.put("ready", readiness.isReady());
         response.put("live", isLive);
         return response;
     }
@@ -49,17 +54,17 @@ class HealthController {
     // Endpoint to simulate application NOT ready (e.g., dependencies not available)
     @GetMapping("/simulate/notready")
     public String simulateNotReady() {
-        isReady = false;
-        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        readiness.setManuallyReady(false);
         return "Application marked as NOT READY. Readiness probe will fail.";
     }
     
     // Endpoint to restore readiness
     @GetMapping("/simulate/ready")
     public String simulateReady() {
-        isReady = true;
-        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
-        return "Application marked as READY. Readiness probe will pass.";
+        readiness.setManuallyReady(true);
+        return readiness.isReady()
+                ? "Application marked as READY. Readiness probe will pass."
+                : "Application marked as READY, but it is overloaded. Readiness probe passes once load recovers.";
     }
     
     // Endpoint to simulate application crash (liveness failure)
@@ -81,7 +86,13 @@ class HealthController {
     @GetMapping("/status")
     public Map<String, Object> status() {
         Map<String, Object> response = new HashMap<>();
-        response.put("readiness", isReady ? "READY" : "NOT_READY");
+        AdaptiveReadiness.Status load = readiness.getStatus();
+        response.put("readiness", readiness.isReady() ? "READY" : "NOT_READY");
+        response.put("manuallyReady", readiness.isManuallyReady());
+        response.put("overloaded", load.overloaded());
+        response.put("breached", load.breached());
+        response.put("load", load.sample());
+        response.put("overloadChangedAt", load.changedAt() == null ? null : load.changedAt().toString());
         response.put("liveness", isLive ? "ALIVE" : "BROKEN");
         response.put("message", "Use /actuator/health/liveness and /actuator/health/readiness for K8s probes");
         return response;
@@ -0,0 +1,109 @@
+package com.example.healthprobes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every CachedHealthIndicator check on its own interval, bounded by health.cache.timeout,
+ * and publishes the result into the indicator's snapshot. Each check is timed into
+ * health.check.duration{indicator,status}, where status is the raw result (or TIMEOUT) before hysteresis.
+ */
+@Component
+public class HealthRefreshEngine {
+
+    private final List<CachedHealthIndicator> indicators;
+    private final HealthCacheProperties properties;
+    private final boolean virtualThreads;
+    private final MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checkExecutor;
+
+    public HealthRefreshEngine(List<CachedHealthIndicator> indicators, HealthCacheProperties properties,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               MeterRegistry meterRegistry) {
+        this.indicators = indicators;
+        this.properties = properties;
+        this.virtualThreads = virtualThreads;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newScheduledThreadPool(Math.max(1, indicators.size()), daemonThreads("health-refresh-")),
+                "health-refresh");
+        // A check that ignores interruption after a timeout only parks a virtual thread
+        checkExecutor = ExecutorServiceMetrics.monitor(meterRegistry, virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("health-check-", 1).factory())
+                : Executors.newCachedThreadPool(daemonThreads("health-check-")), "health-check");
+
+        for (CachedHealthIndicator indicator : indicators) {
+            long intervalMs = indicator.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(() -> refresh(indicator), 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        checkExecutor.shutdownNow();
+    }
+
+    void refresh(CachedHealthIndicator indicator) {
+        long start = System.nanoTime();
+        Future<Health> pending = checkExecutor.submit(indicator::check);
+        Health result;
+        String outcome;
+        try {
+            result = pending.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            outcome = result.getStatus().getCode();
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            result = Health.down()
+                    .withDetail("error", "Timeout after " + properties.timeout().toMillis() + "ms")
+                    .build();
+            outcome = "TIMEOUT";
+        } catch (ExecutionException e) {
+            result = Health.down().withDetail("error", String.valueOf(e.getCause())).build();
+            outcome = "ERROR";
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Timer.builder("health.check.duration")
+                .description("Duration of a background health check, bounded by health.cache.timeout")
+                .tag("indicator", indicator.getName())
+                .tag("status", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        indicator.record(result);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.healthprobes.readiness;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Drives the readiness state from live load. Every health.readiness.interval the saturation signals
+ * are sampled; when the pod is overloaded it publishes REFUSING_TRAFFIC so Kubernetes takes it out
+ * of the Service endpoints, and ACCEPTING_TRAFFIC once it has recovered. Hysteresis (separate
+ * refuse/accept thresholds and consecutive-evaluation counts) keeps it from flapping.
+ *
+ * The manual /simulate/notready toggle is combined with the adaptive decision: the pod is ready
+ * only when it is neither manually marked not ready nor overloaded.
+ */
+@Component
+public class AdaptiveReadiness {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveReadiness.class);
+
+    private final LoadSignals signals;
+    private final AdaptiveReadinessProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean manuallyReady = true;
+    private volatile Status status = new Status(false, LoadSample.IDLE, List.of(), null);
+
+    // Consecutive evaluations past a threshold; only touched by the evaluating thread
+    private int breachedRuns;
+    private int clearRuns;
+
+    private ReadinessState published;
+    private boolean closed;
+    private ScheduledExecutorService evaluator;
+
+    public AdaptiveReadiness(LoadSignals signals, AdaptiveReadinessProperties properties,
+                             ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.signals = signals;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("health.readiness.overloaded", this, r -> r.status.overloaded() ? 1 : 0)
+                .description("1 while adaptive readiness is refusing traffic because of load")
+                .register(meterRegistry);
+        signalGauge("busy_threads", LoadSample::busyThreadRatio);
+        signalGauge("queue_depth", LoadSample::queueDepth);
+        signalGauge("p99_latency_ms", LoadSample::p99LatencyMs);
+        signalGauge("gc_pause_fraction", LoadSample::gcPauseFraction);
+    }
+
+    // Spring marks the application ACCEPTING_TRAFFIC when it is ready; evaluating earlier would be overridden
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (this) {
+            published = ReadinessState.ACCEPTING_TRAFFIC;
+        }
+        publishIfChanged();
+        if (!properties.adaptive()) {
+            return;
+        }
+        evaluator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "readiness-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.interval().toMillis();
+        evaluator.scheduleWithFixedDelay(this::evaluate, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // The shutdown coordinator owns readiness from here on; a recovery must not re-admit a draining pod
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void onClose() {
+        closed = true;
+        stop();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (evaluator != null) {
+            evaluator.shutdownNow();
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isManuallyReady() {
+        return manuallyReady;
+    }
+
+    public boolean isReady() {
+        return manuallyReady && !status.overloaded();
+    }
+
+    // The /simulate/notready and /simulate/ready toggles
+    public void setManuallyReady(boolean ready) {
+        manuallyReady = ready;
+        publishIfChanged();
+    }
+
+    void evaluate() {
+        try {
+            LoadSample sample = signals.sample();
+            List<String> breached = new ArrayList<>();
+            boolean clear = check("busy_threads", sample.busyThreadRatio(), properties.busyThreads(), breached)
+                    & check("queue_depth", sample.queueDepth(), properties.queueDepth(), breached)
+                    & check("p99_latency", sample.p99LatencyMs(), properties.p99LatencyMs(), breached)
+                    & check("gc_pause", sample.gcPauseFraction(), properties.gcPauseFraction(), breached);
+
+            Status previous = status;
+            boolean overloaded = previous.overloaded();
+            if (!overloaded) {
+                breachedRuns = breached.isEmpty() ? 0 : breachedRuns + 1;
+                if (breachedRuns >= properties.refuseAfter()) {
+                    overloaded = true;
+                    clearRuns = 0;
+                }
+            } else {
+                clearRuns = clear ? clearRuns + 1 : 0;
+                if (clearRuns >= properties.acceptAfter()) {
+                    overloaded = false;
+                    breachedRuns = 0;
+                }
+            }
+
+            if (overloaded != previous.overloaded()) {
+                String cause = overloaded ? String.join(",", breached) : "recovered";
+                status = new Status(overloaded, sample, List.copyOf(breached), Instant.now());
+                onTransition(overloaded, cause, sample);
+            } else {
+                status = new Status(overloaded, sample, List.copyOf(breached), previous.changedAt());
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; a failed sample leaves the current state in place
+            log.warn("Adaptive readiness evaluation failed", e);
+        }
+    }
+
+    // Adds the signal to breached when above refuseAbove; returns true when below acceptBelow
+    private static boolean check(String signal, double value, AdaptiveReadinessProperties.Threshold threshold,
+                                 List<String> breached) {
+        if (value > threshold.refuseAbove()) {
+            breached.add(signal);
+        }
+        return value < threshold.acceptBelow();
+    }
+
+    private void onTransition(boolean overloaded, String cause, LoadSample sample) {
+        Counter.builder("health.readiness.transitions")
+                .description("Adaptive readiness state changes")
+                .tag("state", overloaded ? "REFUSING_TRAFFIC" : "ACCEPTING_TRAFFIC")
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+        if (overloaded) {
+            log.warn("Overloaded ({}), refusing traffic: {}", cause, sample);
+        } else {
+            log.info("Load recovered, accepting traffic: {}", sample);
+        }
+        publishIfChanged();
+    }
+
+    // Publishes only real changes of the combined state, so manual and adaptive changes never race each other's events
+    private synchronized void publishIfChanged() {
+        if (published == null || closed) {
+            return;
+        }
+        ReadinessState target = isReady() ? ReadinessState.ACCEPTING_TRAFFIC : ReadinessState.REFUSING_TRAFFIC;
+        if (target != published) {
+            published = target;
+            AvailabilityChangeEvent.publish(eventPublisher, this, target);
+        }
+    }
+
+    private void signalGauge(String signal, ToDoubleFunction<LoadSample> value) {
+        Gauge.builder("health.readiness.signal", this, r -> value.applyAsDouble(r.status.sample()))
+                .description("Latest saturation signal read by adaptive readiness")
+                .tag("signal", signal)
+                .register(meterRegistry);
+    }
+
+    public record Status(boolean overloaded, LoadSample sample, List<String> breached, Instant changedAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.healthprobes.readiness;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for AdaptiveReadiness (health.readiness.*). Each signal has two thresholds: the pod
+ * starts refusing traffic once any signal is above refuseAbove for refuseAfter evaluations in a
+ * row, and accepts again once every signal is below acceptBelow for acceptAfter evaluations.
+ */
+@ConfigurationProperties(prefix = "health.readiness")
+public record AdaptiveReadinessProperties(
+        @DefaultValue("true") boolean adaptive,
+        @DefaultValue("1s") Duration interval,
+        @DefaultValue("30s") Duration window,
+        @DefaultValue("3") int refuseAfter,
+        @DefaultValue("5") int acceptAfter,
+        Threshold busyThreads,
+        Threshold queueDepth,
+        Threshold p99LatencyMs,
+        Threshold gcPauseFraction) {
+
+    public AdaptiveReadinessProperties {
+        busyThreads = busyThreads == null ? new Threshold(0.9, 0.7) : busyThreads;
+        queueDepth = queueDepth == null ? new Threshold(50, 10) : queueDepth;
+        p99LatencyMs = p99LatencyMs == null ? new Threshold(1000, 500) : p99LatencyMs;
+        gcPauseFraction = gcPauseFraction == null ? new Threshold(0.2, 0.1) : gcPauseFraction;
+    }
+
+    public record Threshold(double refuseAbove, double acceptBelow) {
+
+        public Threshold {
+            if (acceptBelow > refuseAbove) {
+                throw new IllegalArgumentException(
+                        "acceptBelow (" + acceptBelow + ") must not be above refuseAbove (" + refuseAbove + ")");
+            }
+        }
+    }
+}
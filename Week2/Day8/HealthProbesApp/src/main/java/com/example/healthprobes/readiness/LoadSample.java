@@ -0,0 +1,10 @@
+package com.example.healthprobes.readiness;
+
+/**
+ * One reading of the saturation signals. On virtual threads busyThreadRatio and queueDepth are
+ * derived from the requests in flight rather than a worker pool (see LoadSignals).
+ */
+public record LoadSample(double busyThreadRatio, int queueDepth, double p99LatencyMs, double gcPauseFraction) {
+
+    static final LoadSample IDLE = new LoadSample(0, 0, 0, 0);
+}
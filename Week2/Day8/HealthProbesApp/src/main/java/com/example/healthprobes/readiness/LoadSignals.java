@@ -0,0 +1,131 @@
+package com.example.healthprobes.readiness;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the saturation signals behind AdaptiveReadiness: Tomcat's busy-thread ratio and queue
+ * depth from its worker pool, p99 request latency over the sliding window (fed by
+ * RequestLatencyFilter), and the share of wall time spent in GC over the same window.
+ *
+ * On virtual threads Tomcat has no worker pool, so busy ratio and queue depth come from the
+ * requests in flight (also counted by RequestLatencyFilter) measured against
+ * server.tomcat.threads.max: the ratio is in-flight / max, and the queue is whatever is in flight
+ * beyond max, i.e. what the platform pool would have had waiting.
+ */
+@Component
+public class LoadSignals {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSignals.class);
+
+    private final Timer latency;
+    private final List<GarbageCollectorMXBean> collectors;
+    private final long windowNanos;
+    private final int maxThreads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // GC samples {nanoTime, cumulative collection ms}; only touched by the evaluating thread
+    private final Deque<long[]> gcSamples = new ArrayDeque<>();
+
+    private volatile Executor tomcatExecutor;
+
+    public LoadSignals(AdaptiveReadinessProperties properties, ServerProperties serverProperties,
+                       MeterRegistry meterRegistry) {
+        this.windowNanos = properties.window().toNanos();
+        this.maxThreads = serverProperties.getTomcat().getThreads().getMax();
+        // Percentiles decay over the window; five rotating buffers make it slide rather than reset
+        this.latency = Timer.builder("health.readiness.request.latency")
+                .description("Application request latency seen by adaptive readiness (actuator and /simulate excluded)")
+                .publishPercentiles(0.99)
+                .distributionStatisticExpiry(properties.window())
+                .distributionStatisticBufferLength(5)
+                .register(meterRegistry);
+        // ZGC and Shenandoah also report concurrent cycles, which do not stop the application
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(gc -> !gc.getName().endsWith("Cycles"))
+                .toList();
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getWebServer() instanceof TomcatWebServer tomcat) {
+            tomcatExecutor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        }
+        if (tomcatExecutor instanceof ThreadPoolExecutor pool) {
+            log.info("Readiness signals: busy_threads and queue_depth from Tomcat's worker pool (max {}),"
+                    + " p99_latency, gc_pause", pool.getMaximumPoolSize());
+        } else {
+            log.info("Readiness signals: busy_threads and queue_depth from in-flight requests against"
+                    + " server.tomcat.threads.max={} (no worker pool: {}), p99_latency, gc_pause",
+                    maxThreads, tomcatExecutor == null ? "none" : tomcatExecutor.getClass().getSimpleName());
+        }
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    void recordRequest(long durationNanos) {
+        latency.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Called from one thread only (the AdaptiveReadiness evaluator)
+    LoadSample sample() {
+        double busyRatio;
+        int queueDepth;
+        if (tomcatExecutor instanceof ThreadPoolExecutor pool) {
+            busyRatio = (double) pool.getActiveCount() / pool.getMaximumPoolSize();
+            queueDepth = pool.getQueue().size();
+        } else {
+            int requests = inFlight.get();
+            busyRatio = Math.min(1, (double) requests / maxThreads);
+            queueDepth = Math.max(0, requests - maxThreads);
+        }
+        return new LoadSample(busyRatio, queueDepth, p99Millis(), gcPauseFraction());
+    }
+
+    private double p99Millis() {
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            return value.value(TimeUnit.MILLISECONDS);
+        }
+        return 0;
+    }
+
+    private double gcPauseFraction() {
+        long now = System.nanoTime();
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        gcSamples.addLast(new long[] {now, gcMillis});
+        while (gcSamples.size() > 2 && now - gcSamples.peekFirst()[0] > windowNanos) {
+            gcSamples.removeFirst();
+        }
+
+        long[] oldest = gcSamples.peekFirst();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - oldest[0]);
+        return elapsedMillis == 0 ? 0 : Math.min(1, (double) (gcMillis - oldest[1]) / elapsedMillis);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.healthprobes.readiness;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Feeds application request latency and the in-flight request count into LoadSignals. Probes are
+ * left out of both: they are cheap by design. The /simulate endpoints count as in flight, since
+ * they hold a thread like any request, but not towards latency: /simulate/slowstart sleeps for 45s
+ * on purpose.
+ */
+@Component
+public class RequestLatencyFilter extends OncePerRequestFilter {
+
+    private final LoadSignals signals;
+
+    public RequestLatencyFilter(LoadSignals signals) {
+        this.signals = signals;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        signals.requestStarted();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            signals.requestFinished();
+            if (!request.getRequestURI().startsWith("/simulate")) {
+                signals.recordRequest(System.nanoTime() - start);
+            }
+        }
+    }
+}
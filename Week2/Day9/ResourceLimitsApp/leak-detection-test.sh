@@ -0,0 +1,130 @@
+#!/bin/bash
+
+# Leak detection test for HeapGrowthDetector. Starts the service with a small heap, leaks RATE_MB
+# through /memory-leak every second and polls /actuator/health/readiness, then reports:
+#   detection latency   time from the first leaked MB until readiness went 503
+#   lead time           time from readiness going 503 until the heap actually ran out
+#   recovery            time from /free-memory until readiness is back to 200
+# Fails when the leak was not detected at least MIN_LEAD seconds before the OutOfMemoryError, took
+# longer than MAX_DETECTION seconds, or readiness did not come back once the leak was freed. Samples only
+# arrive with old collections, so latency depends on the collector: Serial collects the old generation
+# only when it is full, G1 from its concurrent cycles on.
+#
+# Usage: ./leak-detection-test.sh [service-jar]
+#   HEAP=192m RATE_MB=2 GC=serial|g1|parallel PORT=18091 MAX_DETECTION=90 MIN_LEAD=15   extra arguments in SERVICE_ARGS
+
+JAR=${1:-target/resource-limits-demo-1.0.0.jar}
+HEAP=${HEAP:-192m}
+RATE_MB=${RATE_MB:-2}
+GC=${GC:-serial}
+PORT=${PORT:-18091}
+MAX_DETECTION=${MAX_DETECTION:-90}
+MIN_LEAD=${MIN_LEAD:-15}
+
+case "$GC" in
+    serial) GC_FLAG=-XX:+UseSerialGC ;;
+    parallel) GC_FLAG=-XX:+UseParallelGC ;;
+    g1) GC_FLAG=-XX:+UseG1GC ;;
+    *) echo "GC must be serial, parallel or g1" >&2; exit 1 ;;
+esac
+if [ ! -f "$JAR" ]; then
+    echo "Usage: $0 [service-jar]   (build it first: mvn clean package)" >&2
+    exit 1
+fi
+
+WORK=$(mktemp -d)
+BASE="http://localhost:$PORT"
+cleanup() {
+    [ -n "$PID" ] && kill "$PID" 2>/dev/null && wait "$PID" 2>/dev/null
+    rm -rf "$WORK"
+}
+trap cleanup EXIT
+
+echo "=========================================="
+echo "Leak detection test: -Xmx$HEAP $GC_FLAG, leaking ${RATE_MB} MB/s"
+echo "=========================================="
+
+java -Xmx"$HEAP" "$GC_FLAG" -jar "$JAR" --server.port="$PORT" --app.admission.enabled=false \
+    --app.logs.dir="$WORK/logs" $SERVICE_ARGS > "$WORK/service.log" 2>&1 &
+PID=$!
+until curl -sf -o /dev/null "$BASE/actuator/health/readiness"; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "Service exited during startup; see its log:" >&2
+        tail -20 "$WORK/service.log" >&2
+        exit 1
+    fi
+    sleep 0.2
+done
+
+readiness() {
+    curl -s -o "$WORK/readiness.json" --max-time 5 -w "%{http_code}" "$BASE/actuator/health/readiness"
+}
+leak_detail() {
+    grep -o "\"$1\":[^,}]*" "$WORK/readiness.json" | head -1 | cut -d: -f2
+}
+
+START_MS=$(date +%s%3N)
+DETECT_MS=""
+OOM_MS=""
+leaked=0
+printf "%6s %9s %10s %8s %12s %6s\n" "secs" "leakedMB" "readiness" "samples" "growthMB/min" "ttl"
+while [ -z "$OOM_MS" ]; do
+    tick=$(date +%s%3N)
+    got=$(curl -s --max-time 30 "$BASE/memory-leak?iterations=$RATE_MB" | grep -o '"leakedMB":[0-9]*' | cut -d: -f2)
+    leaked=$(( leaked + ${got:-0} ))
+    [ "${got:-0}" -lt "$RATE_MB" ] && OOM_MS=$(date +%s%3N)
+
+    code=$(readiness)
+    elapsed=$(( ($(date +%s%3N) - START_MS) / 1000 ))
+    printf "%6d %9d %10s %8s %12s %6s\n" "$elapsed" "$leaked" "$code" "$(leak_detail samples)" \
+        "$(leak_detail growthMBPerMinute)" "$(leak_detail secondsToLimit)"
+    if [ "$code" = "503" ] && [ -z "$DETECT_MS" ]; then
+        DETECT_MS=$(date +%s%3N)
+        DETECT_LEAKED=$leaked
+        cp "$WORK/readiness.json" "$WORK/detected.json"
+    fi
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "Service died" >&2
+        exit 1
+    fi
+    rest=$(( 1000 - ($(date +%s%3N) - tick) ))
+    [ "$rest" -gt 0 ] && sleep "$(awk -v ms="$rest" 'BEGIN { print ms / 1000 }')"
+done
+
+FREE_MS=$(date +%s%3N)
+curl -s -o /dev/null --max-time 30 "$BASE/free-memory?pool=HEAP"
+until [ "$(readiness)" = "200" ] || [ $(( $(date +%s%3N) - FREE_MS )) -gt 30000 ]; do
+    sleep 0.5
+done
+RECOVERED_MS=$(date +%s%3N)
+[ "$(readiness)" = "200" ] || RECOVERED_MS=""
+
+echo ""
+echo "Leaked ${leaked} MB before the heap ran out after $(( (OOM_MS - START_MS) / 1000 ))s"
+if [ -z "$DETECT_MS" ]; then
+    echo "FAIL: readiness never went 503 before the OutOfMemoryError"
+    exit 1
+fi
+LATENCY=$(( (DETECT_MS - START_MS) / 1000 ))
+echo "Detection latency:  ${LATENCY}s (${DETECT_LEAKED} MB leaked)"
+LEAD=$(( (OOM_MS - DETECT_MS) / 1000 ))
+echo "Lead time:          ${LEAD}s before the OutOfMemoryError"
+if [ -n "$RECOVERED_MS" ]; then
+    echo "Recovery:           $(( (RECOVERED_MS - FREE_MS) / 1000 ))s after /free-memory"
+else
+    echo "Recovery:           still 503 30s after /free-memory"
+fi
+echo "memoryLeak at detection: $(grep -o '"memoryLeak":{[^}]*}}' "$WORK/detected.json")"
+if [ "$LATENCY" -gt "$MAX_DETECTION" ]; then
+    echo "FAIL: detection took longer than ${MAX_DETECTION}s"
+    exit 1
+fi
+if [ "$LEAD" -lt "$MIN_LEAD" ]; then
+    echo "FAIL: detected less than ${MIN_LEAD}s before the OutOfMemoryError"
+    exit 1
+fi
+if [ -z "$RECOVERED_MS" ]; then
+    echo "FAIL: readiness did not recover after the leak was freed"
+    exit 1
+fi
+echo "PASS"
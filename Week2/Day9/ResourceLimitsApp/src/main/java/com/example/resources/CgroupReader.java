@@ -0,0 +1,161 @@
+package com.example.resources;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the container's CPU and memory limits and usage from the cgroup filesystem.
+ * Supports cgroup v2 (unified hierarchy) and v1 (cpu, cpuacct, memory controllers).
+ * The root is configurable so the reader can be pointed at a copied or fake cgroup tree.
+ */
+public class CgroupReader {
+
+    public static final long UNLIMITED = -1;
+
+    // cgroup v1 reports "no limit" as a page-aligned Long.MAX_VALUE
+    private static final long V1_UNLIMITED_THRESHOLD = 1L << 62;
+
+    private final Path root;
+    private final Path procStatus;
+    private final String version;
+
+    public CgroupReader(String root) {
+        this(Paths.get(root), Paths.get("/proc/self/status"));
+    }
+
+    public CgroupReader(Path root, Path procStatus) {
+        this.root = root;
+        this.procStatus = procStatus;
+        if (Files.exists(root.resolve("cgroup.controllers"))) {
+            this.version = "v2";
+        } else if (Files.isDirectory(root.resolve("memory")) || Files.isDirectory(root.resolve("cpu"))) {
+            this.version = "v1";
+        } else {
+            this.version = "none";
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public CgroupStats read() {
+        return switch (version) {
+            case "v2" -> readV2();
+            case "v1" -> readV1();
+            default -> CgroupStats.unavailable(readProcessRss());
+        };
+    }
+
+    private CgroupStats readV2() {
+        long quota = UNLIMITED;
+        long period = 100_000;
+        String[] cpuMax = readLine(root.resolve("cpu.max")).split("\\s+");
+        if (cpuMax.length == 2) {
+            quota = "max".equals(cpuMax[0]) ? UNLIMITED : parseLong(cpuMax[0]);
+            period = parseLong(cpuMax[1]);
+        }
+
+        Map<String, Long> cpuStat = readKeyValues(root.resolve("cpu.stat"));
+        Map<String, Long> memoryStat = readKeyValues(root.resolve("memory.stat"));
+        String memoryMax = readLine(root.resolve("memory.max"));
+
+        return new CgroupStats(
+                version,
+                quota,
+                period,
+                cpuStat.getOrDefault("usage_usec", UNLIMITED),
+                cpuStat.getOrDefault("nr_periods", 0L),
+                cpuStat.getOrDefault("nr_throttled", 0L),
+                cpuStat.getOrDefault("throttled_usec", 0L),
+                "max".equals(memoryMax) || memoryMax.isEmpty() ? UNLIMITED : parseLong(memoryMax),
+                parseLong(readLine(root.resolve("memory.current"))),
+                memoryStat.getOrDefault("anon", UNLIMITED),
+                memoryStat.getOrDefault("file", UNLIMITED),
+                readProcessRss());
+    }
+
+    private CgroupStats readV1() {
+        Path cpu = firstExisting(root.resolve("cpu"), root.resolve("cpu,cpuacct"));
+        Path cpuacct = firstExisting(root.resolve("cpuacct"), root.resolve("cpu,cpuacct"));
+        Path memory = root.resolve("memory");
+
+        long quota = parseLong(readLine(cpu.resolve("cpu.cfs_quota_us")));
+        long period = parseLong(readLine(cpu.resolve("cpu.cfs_period_us")));
+        Map<String, Long> cpuStat = readKeyValues(cpu.resolve("cpu.stat"));
+        long usageNs = parseLong(readLine(cpuacct.resolve("cpuacct.usage")));
+
+        long limit = parseLong(readLine(memory.resolve("memory.limit_in_bytes")));
+        Map<String, Long> memoryStat = readKeyValues(memory.resolve("memory.stat"));
+
+        return new CgroupStats(
+                version,
+                quota <= 0 ? UNLIMITED : quota,
+                period <= 0 ? 100_000 : period,
+                usageNs < 0 ? UNLIMITED : usageNs / 1000,
+                cpuStat.getOrDefault("nr_periods", 0L),
+                cpuStat.getOrDefault("nr_throttled", 0L),
+                cpuStat.getOrDefault("throttled_time", 0L) / 1000,
+                limit < 0 || limit >= V1_UNLIMITED_THRESHOLD ? UNLIMITED : limit,
+                parseLong(readLine(memory.resolve("memory.usage_in_bytes"))),
+                memoryStat.getOrDefault("total_rss", memoryStat.getOrDefault("rss", UNLIMITED)),
+                memoryStat.getOrDefault("total_cache", memoryStat.getOrDefault("cache", UNLIMITED)),
+                readProcessRss());
+    }
+
+    // VmRSS of this JVM process, in bytes
+    private long readProcessRss() {
+        try {
+            for (String line : Files.readAllLines(procStatus)) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.substring(6).trim().split("\\s+");
+                    return parseLong(parts[0]) * 1024;
+                }
+            }
+        } catch (IOException e) {
+            // Not on Linux
+        }
+        return UNLIMITED;
+    }
+
+    private static Path firstExisting(Path preferred, Path fallback) {
+        return Files.isDirectory(preferred) ? preferred : fallback;
+    }
+
+    private static String readLine(Path file) {
+        try {
+            List<String> lines = Files.readAllLines(file);
+            return lines.isEmpty() ? "" : lines.get(0).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static Map<String, Long> readKeyValues(Path file) {
+        Map<String, Long> values = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length == 2) {
+                    values.put(parts[0], parseLong(parts[1]));
+                }
+            }
+        } catch (IOException e) {
+            // Controller not mounted; callers fall back to defaults
+        }
+        return values;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return UNLIMITED;
+        }
+    }
+}
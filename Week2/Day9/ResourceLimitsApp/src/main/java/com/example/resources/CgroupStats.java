@@ -0,0 +1,31 @@
+package com.example.resources;
+
+// Point-in-time cgroup counters; CgroupReader.UNLIMITED (-1) marks "no limit" or "not available"
+public record CgroupStats(
+        String version,
+        long cpuQuotaUs,
+        long cpuPeriodUs,
+        long cpuUsageUs,
+        long nrPeriods,
+        long nrThrottled,
+        long throttledUs,
+        long memoryLimitBytes,
+        long memoryUsageBytes,
+        long memoryAnonBytes,
+        long memoryFileBytes,
+        long processRssBytes) {
+
+    static CgroupStats unavailable(long processRssBytes) {
+        long none = CgroupReader.UNLIMITED;
+        return new CgroupStats("none", none, 100_000, none, 0, 0, 0, none, none, none, none, processRssBytes);
+    }
+
+    // CPU quota in cores (e.g. 0.5 for a 500m limit), or -1 when unlimited
+    public double effectiveCpus() {
+        return cpuQuotaUs > 0 ? (double) cpuQuotaUs / cpuPeriodUs : -1;
+    }
+
+    public boolean hasMemoryLimit() {
+        return memoryLimitBytes > 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.resources;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+// State of one CPU workload run started by CpuWorkloadEngine
+public class CpuLoadJob {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED }
+
+    private final String id;
+    private final int threads;
+    private final int dutyCyclePercent;
+    private final long requestedMs;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final CgroupStats cgroupAtStart;
+
+    private final AtomicLongArray opsPerThread;
+    private final DoubleAdder result = new DoubleAdder();
+    private final CompletableFuture<CpuLoadJob> completion = new CompletableFuture<>();
+
+    private volatile boolean cancelled;
+    private volatile long finishedNanos;
+    private volatile CgroupStats cgroupAtEnd;
+
+    CpuLoadJob(String id, int threads, int dutyCyclePercent, long requestedMs, CgroupStats cgroupAtStart) {
+        this.id = id;
+        this.threads = threads;
+        this.dutyCyclePercent = dutyCyclePercent;
+        this.requestedMs = requestedMs;
+        this.cgroupAtStart = cgroupAtStart;
+        this.opsPerThread = new AtomicLongArray(threads);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CompletableFuture<CpuLoadJob> getCompletion() {
+        return completion;
+    }
+
+    public Status getStatus() {
+        if (finishedNanos == 0) {
+            return Status.RUNNING;
+        }
+        return cancelled ? Status.CANCELLED : Status.COMPLETED;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getRequestedMs() {
+        return requestedMs;
+    }
+
+    int getDutyCyclePercent() {
+        return dutyCyclePercent;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void recordOps(int thread, long ops) {
+        opsPerThread.set(thread, ops);
+    }
+
+    void addResult(double value) {
+        result.add(value);
+    }
+
+    void finish(CgroupStats cgroup) {
+        cgroupAtEnd = cgroup;
+        finishedNanos = System.nanoTime();
+        completion.complete(this);
+    }
+
+    // While running, throttling is measured against the live cgroup counters passed in
+    public Map<String, Object> report(CgroupStats current) {
+        long endNanos = finishedNanos == 0 ? System.nanoTime() : finishedNanos;
+        CgroupStats end = cgroupAtEnd == null ? current : cgroupAtEnd;
+        double elapsedSeconds = Math.max(1, endNanos - startNanos) / 1e9;
+
+        List<Long> opsPerSecond = new ArrayList<>(threads);
+        long totalOps = 0;
+        for (int i = 0; i < threads; i++) {
+            long ops = opsPerThread.get(i);
+            totalOps += ops;
+            opsPerSecond.add((long) (ops / elapsedSeconds));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jobId", id);
+        report.put("status", getStatus());
+        report.put("startedAt", startedAt.toString());
+        report.put("threads", threads);
+        report.put("dutyCyclePercent", dutyCyclePercent);
+        report.put("requestedSeconds", requestedMs / 1000);
+        report.put("durationMs", (long) (elapsedSeconds * 1000));
+        report.put("totalOps", totalOps);
+        report.put("opsPerSecondPerThread", opsPerSecond);
+        report.put("result", result.sum());
+
+        // CFS throttling observed while the job ran
+        long periods = end.nrPeriods() - cgroupAtStart.nrPeriods();
+        long throttled = end.nrThrottled() - cgroupAtStart.nrThrottled();
+        Map<String, Object> cpu = new LinkedHashMap<>();
+        cpu.put("quotaCores", cgroupAtStart.effectiveCpus() > 0 ? cgroupAtStart.effectiveCpus() : "unlimited");
+        if (cgroupAtStart.cpuUsageUs() >= 0) {
+            cpu.put("coresUsed", (end.cpuUsageUs() - cgroupAtStart.cpuUsageUs()) / 1e6 / elapsedSeconds);
+        }
+        cpu.put("periods", periods);
+        cpu.put("throttledPeriods", throttled);
+        cpu.put("throttledRatio", periods > 0 ? (double) throttled / periods : 0.0);
+        cpu.put("throttledSeconds", (end.throttledUs() - cgroupAtStart.throttledUs()) / 1e6);
+        report.put("cgroup", cpu);
+        return report;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.resources;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs CPU burn jobs on a dedicated ForkJoinPool. Each worker alternates busy and idle time
+ * within a fixed slice to hit the requested duty cycle, e.g. 60% keeps each thread busy for
+ * 60ms of every 100ms (the default CFS period).
+ */
+@Component
+public class CpuWorkloadEngine {
+
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int OPS_PER_CLOCK_CHECK = 1024;
+    private static final int FINISHED_JOBS_KEPT = 20;
+
+    private final ForkJoinPool pool;
+    private final CgroupReader cgroupReader;
+    private final Map<String, CpuLoadJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<String> finished = new ConcurrentLinkedDeque<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public CpuWorkloadEngine(ResourceSampler resourceSampler,
+                             @Value("${resources.cpu-load.max-threads:8}") int maxThreads) {
+        this.pool = new ForkJoinPool(maxThreads);
+        this.cgroupReader = resourceSampler.getCgroupReader();
+    }
+
+    public int getMaxThreads() {
+        return pool.getParallelism();
+    }
+
+    public CpuLoadJob start(int threads, int seconds, int dutyCyclePercent) {
+        int workers = Math.max(1, Math.min(threads, pool.getParallelism()));
+        int duty = Math.max(1, Math.min(100, dutyCyclePercent));
+        String id = "cpu-" + nextId.incrementAndGet();
+
+        CpuLoadJob job = new CpuLoadJob(id, workers, duty, seconds * 1000L, cgroupReader.read());
+        jobs.put(id, job);
+
+        List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            int index = i;
+            running.add(CompletableFuture.runAsync(() -> burn(job, index), pool));
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> {
+                    job.finish(cgroupReader.read());
+                    retire(id);
+                });
+        return job;
+    }
+
+    public CpuLoadJob get(String id) {
+        return jobs.get(id);
+    }
+
+    public Collection<CpuLoadJob> list() {
+        return jobs.values();
+    }
+
+    public CpuLoadJob cancel(String id) {
+        CpuLoadJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    public CgroupStats currentCgroup() {
+        return cgroupReader.read();
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobs.values().forEach(CpuLoadJob::cancel);
+        pool.shutdownNow();
+    }
+
+    private void burn(CpuLoadJob job, int index) {
+        long end = job.getStartNanos() + TimeUnit.MILLISECONDS.toNanos(job.getRequestedMs());
+        long busyNanos = SLICE_NANOS * job.getDutyCyclePercent() / 100;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double sink = 0;
+        long ops = 0;
+
+        while (!job.isCancelled()) {
+            long sliceStart = System.nanoTime();
+            if (sliceStart >= end) {
+                break;
+            }
+
+            // Check the clock once per batch rather than once per operation
+            long busyUntil = Math.min(sliceStart + busyNanos, end);
+            do {
+                for (int i = 0; i < OPS_PER_CLOCK_CHECK; i++) {
+                    sink += Math.sqrt(random.nextDouble() * 1000);
+                }
+                ops += OPS_PER_CLOCK_CHECK;
+            } while (System.nanoTime() < busyUntil && !job.isCancelled());
+            job.recordOps(index, ops);
+
+            long idleNanos = Math.min(sliceStart + SLICE_NANOS, end) - System.nanoTime();
+            if (busyNanos < SLICE_NANOS && idleNanos > 0) {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+        job.addResult(sink);
+    }
+
+    // Keeps running jobs plus the most recent finished ones
+    private void retire(String id) {
+        finished.addLast(id);
+        while (finished.size() > FINISHED_JOBS_KEPT) {
+            String oldest = finished.pollFirst();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.resources;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches the old generation's live set for steady growth. Every old collection (full GC, G1
+ * concurrent cycle or mixed collection, ZGC/Shenandoah cycle) reports the pool's usage after the
+ * collection in a GC notification; a least-squares fit over the last window of those samples gives
+ * the growth rate, and the headroom left under -Xmx and under the container limit divided by that
+ * rate gives the time until the process fails with an OutOfMemoryError or an OOMKill.
+ *
+ * Young collections are ignored: between old collections the old generation also holds garbage,
+ * so only usage right after an old collection approximates the live set.
+ */
+@Component
+public class HeapGrowthDetector implements MeterBinder {
+
+    private static final String NOTIFICATION = GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION;
+
+    private final ResourceSampler resourceSampler;
+    private final long windowMs;
+    private final int minSamples;
+    private final double minFit;
+    private final long horizonSeconds;
+    private final int maxSamples;
+    private final MemoryPoolMXBean oldPool;
+
+    // Post-GC live-set samples, oldest first; guarded by itself
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private final LongAdder oldCollections = new LongAdder();
+    private final NotificationListener listener = this::onNotification;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    public HeapGrowthDetector(ResourceSampler resourceSampler,
+                              @Value("${resources.leak.window-seconds:600}") long windowSeconds,
+                              @Value("${resources.leak.min-samples:3}") int minSamples,
+                              @Value("${resources.leak.min-fit:0.8}") double minFit,
+                              @Value("${resources.leak.readiness-horizon-seconds:600}") long horizonSeconds,
+                              @Value("${resources.leak.max-samples:120}") int maxSamples) {
+        if (minSamples < 3 || maxSamples < minSamples) {
+            throw new IllegalArgumentException(
+                    "resources.leak.min-samples must be at least 3 and at most max-samples, got " + minSamples);
+        }
+        this.resourceSampler = resourceSampler;
+        this.windowMs = windowSeconds * 1000;
+        this.minSamples = minSamples;
+        this.minFit = minFit;
+        this.horizonSeconds = horizonSeconds;
+        this.maxSamples = maxSamples;
+        this.oldPool = findOldPool();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (oldPool == null) {
+            return;
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, n -> NOTIFICATION.equals(n.getType()), null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException ignored) {
+                // Already gone
+            }
+        }
+        emitters.clear();
+    }
+
+    // The live set grows by design while the context starts: keep only the last startup sample as the baseline
+    @EventListener(ApplicationReadyEvent.class)
+    public void startupFinished() {
+        synchronized (samples) {
+            while (samples.size() > 1) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    public String getOldPoolName() {
+        return oldPool == null ? null : oldPool.getName();
+    }
+
+    public long getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    // Runs on the JVM's notification thread; keep it to a map lookup and an append
+    private void onNotification(Notification notification, Object handback) {
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        MemoryUsage before = info.getGcInfo().getMemoryUsageBeforeGc().get(oldPool.getName());
+        MemoryUsage after = info.getGcInfo().getMemoryUsageAfterGc().get(oldPool.getName());
+        if (after == null || !collectsOldGeneration(info, before, after)) {
+            return;
+        }
+        oldCollections.increment();
+        record(System.currentTimeMillis(), after.getUsed());
+    }
+
+    void record(long atMs, long liveBytes) {
+        synchronized (samples) {
+            // Live set back below where the window started: whatever grew was released, so the trend starts over
+            if (!samples.isEmpty() && liveBytes < samples.peekFirst().liveBytes()) {
+                samples.clear();
+            }
+            samples.addLast(new Sample(atMs, liveBytes));
+            if (samples.size() > maxSamples) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Fits the samples still inside the window and projects the time until the heap or the container
+     * runs out. Cheap enough to call on every health check and scrape.
+     */
+    public Trend trend() {
+        long now = System.currentTimeMillis();
+        List<Sample> window;
+        synchronized (samples) {
+            while (!samples.isEmpty() && samples.peekFirst().atMs() < now - windowMs) {
+                samples.removeFirst();
+            }
+            window = new ArrayList<>(samples);
+        }
+        if (window.isEmpty()) {
+            return Trend.none();
+        }
+
+        // Least squares over (seconds since the first sample, live bytes)
+        long t0 = window.get(0).atMs();
+        int n = window.size();
+        double sumX = 0, sumY = 0;
+        for (Sample s : window) {
+            sumX += (s.atMs() - t0) / 1000.0;
+            sumY += s.liveBytes();
+        }
+        double meanX = sumX / n, meanY = sumY / n;
+        double sxx = 0, sxy = 0, syy = 0;
+        for (Sample s : window) {
+            double dx = (s.atMs() - t0) / 1000.0 - meanX;
+            double dy = s.liveBytes() - meanY;
+            sxx += dx * dx;
+            sxy += dx * dy;
+            syy += dy * dy;
+        }
+        double slope = sxx > 0 ? sxy / sxx : 0;
+        double fit = sxx > 0 && syy > 0 ? (sxy * sxy) / (sxx * syy) : 0;
+
+        long live = window.get(n - 1).liveBytes();
+        Headroom headroom = headroom(live);
+        double secondsToLimit = slope > 0 && headroom.bytes() >= 0 ? headroom.bytes() / slope : Double.NaN;
+        boolean suspected = n >= minSamples && slope > 0 && fit >= minFit && secondsToLimit <= horizonSeconds;
+        return new Trend(n, (now - t0) / 1000.0, live, slope, fit, headroom.bytes(), headroom.limit(),
+                secondsToLimit, suspected);
+    }
+
+    // The tighter of the two ways to fail: the heap's max (OutOfMemoryError) or the container limit (OOMKill)
+    private Headroom headroom(long live) {
+        // The whole heap, not just the old pool: once the old generation is full, leaked objects stay in the young one
+        long heapMax = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        Headroom heap = new Headroom(heapMax > 0 ? heapMax - live : Long.MAX_VALUE, "heap");
+
+        ResourceSample latest = resourceSampler.latest();
+        CgroupStats cgroup = latest == null ? null : latest.cgroup();
+        if (cgroup == null || !cgroup.hasMemoryLimit()) {
+            return heap;
+        }
+        long used = cgroup.memoryAnonBytes() >= 0 ? cgroup.memoryAnonBytes() : cgroup.memoryUsageBytes();
+        Headroom container = new Headroom(cgroup.memoryLimitBytes() - used, "container");
+        return container.bytes() < heap.bytes() ? container : heap;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (oldPool == null) {
+            return;
+        }
+        Gauge.builder("memory.leak.live.bytes", this, d -> d.trend().liveBytes())
+                .description("Old generation usage after the last old collection")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("memory.leak.growth.rate", this, d -> d.trend().bytesPerSecond())
+                .description("Fitted live-set growth over the detection window")
+                .baseUnit("bytes.per.second")
+                .register(registry);
+        Gauge.builder("memory.leak.time.to.limit", this, d -> d.trend().secondsToLimit())
+                .description("Projected time until the heap or container limit is reached; NaN when not growing")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("memory.leak.suspected", this, d -> d.trend().suspected() ? 1 : 0)
+                .description("1 while the trend predicts running out within the readiness horizon")
+                .register(registry);
+        FunctionCounter.builder("memory.leak.old.collections", oldCollections, LongAdder::sum)
+                .description("Old collections sampled by the leak detector")
+                .register(registry);
+    }
+
+    // Name-based because the platform MXBeans do not say which generation a pool is
+    private static MemoryPoolMXBean findOldPool() {
+        MemoryPoolMXBean fallback = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            String name = pool.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return pool;
+            }
+            if (!name.contains("Eden") && !name.contains("Survivor") && !name.contains("Young")) {
+                fallback = pool; // Single-generation collectors: Shenandoah, non-generational ZGC
+            }
+        }
+        return fallback;
+    }
+
+    private static boolean collectsOldGeneration(GarbageCollectionNotificationInfo info,
+                                                 MemoryUsage before, MemoryUsage after) {
+        String name = info.getGcName();
+        if (info.getGcAction().contains("major")                      // Serial, Parallel and G1 full GCs
+                || name.contains("Major") || name.contains("Concurrent")  // ZGC major cycles, G1 remark/cleanup
+                || (name.endsWith("Cycles") && !name.contains("Minor"))) { // Shenandoah, non-generational ZGC
+            return true;
+        }
+        // G1 mixed collections: old regions were evacuated
+        return before != null && after.getUsed() < before.getUsed();
+    }
+
+    record Sample(long atMs, long liveBytes) {
+    }
+
+    private record Headroom(long bytes, String limit) {
+    }
+
+    /**
+     * One evaluation of the detector. secondsToLimit is NaN when the live set is not growing;
+     * suspected means enough samples, a good fit and a projected failure within the readiness horizon.
+     */
+    public record Trend(
+            int samples,
+            double spanSeconds,
+            long liveBytes,
+            double bytesPerSecond,
+            double fit,
+            long headroomBytes,
+            String limit,
+            double secondsToLimit,
+            boolean suspected) {
+
+        static Trend none() {
+            return new Trend(0, 0, 0, 0, 0, 0, null, Double.NaN, false);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.resources;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "memoryLeak" health contributor. Reports OUT_OF_SERVICE while HeapGrowthDetector predicts the heap or
+ * the container running out within the readiness horizon; it is part of the readiness group only, so
+ * the pod stops receiving traffic before the OOM while liveness (and the restart decision) is unaffected.
+ */
+@Component
+public class MemoryLeakHealthIndicator implements HealthIndicator {
+
+    private static final double MB = 1024 * 1024;
+
+    private final HeapGrowthDetector detector;
+
+    public MemoryLeakHealthIndicator(HeapGrowthDetector detector) {
+        this.detector = detector;
+    }
+
+    @Override
+    public Health health() {
+        if (detector.getOldPoolName() == null) {
+            return Health.unknown().withDetail("reason", "No old generation pool to watch").build();
+        }
+        HeapGrowthDetector.Trend trend = detector.trend();
+        Health.Builder builder = trend.suspected() ? Health.outOfService() : Health.up();
+        builder.withDetail("pool", detector.getOldPoolName())
+                .withDetail("samples", trend.samples())
+                .withDetail("spanSeconds", Math.round(trend.spanSeconds()));
+        if (trend.samples() == 0) {
+            return builder.withDetail("reason", "No old collection within the window").build();
+        }
+        builder.withDetail("liveMB", Math.round(trend.liveBytes() / MB))
+                .withDetail("growthMBPerMinute", Math.round(trend.bytesPerSecond() * 60 / MB * 10) / 10.0)
+                .withDetail("fit", Math.round(trend.fit() * 100) / 100.0)
+                .withDetail("limit", trend.limit())
+                .withDetail("headroomMB", Math.round(trend.headroomBytes() / MB));
+        if (!Double.isNaN(trend.secondsToLimit())) {
+            builder.withDetail("secondsToLimit", Math.round(trend.secondsToLimit()));
+        }
+        return builder.withDetail("horizonSeconds", detector.getHorizonSeconds()).build();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.resources;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe memory pressure generator with separate pools for heap arrays, direct buffers and
+ * memory-mapped files. Every chunk has its pages touched so RSS really grows, and direct/mapped
+ * chunks are freed explicitly rather than waiting for GC, so releases are deterministic.
+ *
+ * Heap pressure ends in a Java OutOfMemoryError, direct pressure beyond the container limit ends
+ * in an OOMKill, and heap close to -Xmx shows up as GC thrash. Mapped pages are charged to the
+ * container too, but in a disk-backed mapped-dir (the default temp directory) they are page cache
+ * the kernel writes back and reclaims at the limit; only a tmpfs such as /dev/shm pins them and
+ * leads to an OOMKill.
+ */
+@Component
+public class MemoryPressureSimulator {
+
+    public enum Pool { HEAP, DIRECT, MAPPED }
+
+    public static final int CHUNK_BYTES = 1024 * 1024;
+    private static final int PAGE_BYTES = 4096;
+    private static final long GROWTH_TICK_MS = 100;
+
+    private final Map<Pool, ConcurrentLinkedDeque<Object>> chunks = new EnumMap<>(Pool.class);
+    private final Map<Pool, AtomicLong> allocatedChunks = new EnumMap<>(Pool.class);
+    private final Path mappedDir;
+    private final AtomicLong mappedFileCounter = new AtomicLong();
+    private final ScheduledExecutorService growthTicker;
+
+    private volatile ScheduledFuture<?> growth;
+    private volatile String growthDescription = "idle";
+    private volatile String lastError;
+
+    public MemoryPressureSimulator(@Value("${resources.memory.mapped-dir:${java.io.tmpdir}}") String mappedDir) {
+        for (Pool pool : Pool.values()) {
+            chunks.put(pool, new ConcurrentLinkedDeque<>());
+            allocatedChunks.put(pool, new AtomicLong());
+        }
+        this.mappedDir = Paths.get(mappedDir);
+        this.growthTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "memory-pressure-growth");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Allocates megabytes 1 MB chunks into pool; returns how many were allocated before any failure
+    public int allocate(Pool pool, int megabytes) {
+        int allocated = 0;
+        try {
+            for (int i = 0; i < megabytes; i++) {
+                chunks.get(pool).addLast(newChunk(pool));
+                allocatedChunks.get(pool).incrementAndGet();
+                allocated++;
+            }
+        } catch (OutOfMemoryError e) {
+            lastError = pool + ": OutOfMemoryError: " + e.getMessage();
+        } catch (UncheckedIOException e) {
+            lastError = pool + ": " + e.getCause();
+        }
+        return allocated;
+    }
+
+    // Releases every chunk in pool and returns the number of MB freed
+    public long free(Pool pool) {
+        long freed = 0;
+        Object chunk;
+        while ((chunk = chunks.get(pool).pollFirst()) != null) {
+            release(pool, chunk);
+            allocatedChunks.get(pool).decrementAndGet();
+            freed++;
+        }
+        return freed;
+    }
+
+    public long allocatedMb(Pool pool) {
+        return allocatedChunks.get(pool).get();
+    }
+
+    // Grows pool by rateMbPerSecond until targetMb is reached, an allocation fails or stopGrowth()
+    public synchronized void startGrowth(Pool pool, double rateMbPerSecond, int targetMb) {
+        stopGrowth();
+        double perTick = rateMbPerSecond * GROWTH_TICK_MS / 1000.0;
+        double[] carry = {0};
+        // Each tick ends its own task, never whichever one the growth field holds by then
+        CompletableFuture<ScheduledFuture<?>> self = new CompletableFuture<>();
+        growthDescription = String.format("%s at %.1f MB/s up to %d MB", pool, rateMbPerSecond, targetMb);
+        growth = growthTicker.scheduleAtFixedRate(() -> {
+            carry[0] += perTick;
+            int due = (int) Math.min(carry[0], targetMb - allocatedMb(pool));
+            carry[0] -= due;
+            if (due > 0 && allocate(pool, due) < due) {
+                endGrowth(self.join(), description -> "stopped after failure: " + lastError);
+            } else if (allocatedMb(pool) >= targetMb) {
+                endGrowth(self.join(), description -> "completed: " + description);
+            }
+        }, GROWTH_TICK_MS, GROWTH_TICK_MS, TimeUnit.MILLISECONDS);
+        self.complete(growth);
+    }
+
+    public synchronized void stopGrowth() {
+        if (growth != null && !growth.isDone()) {
+            growth.cancel(false);
+            growthDescription = "stopped: " + growthDescription;
+        }
+    }
+
+    // A task that was already stopped or replaced leaves the description alone
+    private synchronized void endGrowth(ScheduledFuture<?> task, UnaryOperator<String> outcome) {
+        if (growth == task && !task.isDone()) {
+            growthDescription = outcome.apply(growthDescription);
+        }
+        task.cancel(false);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Pool pool : Pool.values()) {
+            status.put(pool.name().toLowerCase() + "MB", allocatedMb(pool));
+        }
+        status.put("growth", growth != null && !growth.isDone() ? "running: " + growthDescription : growthDescription);
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        growthTicker.shutdownNow();
+        for (Pool pool : Pool.values()) {
+            free(pool);
+        }
+    }
+
+    private Object newChunk(Pool pool) {
+        return switch (pool) {
+            case HEAP -> {
+                byte[] chunk = new byte[CHUNK_BYTES];
+                for (int i = 0; i < CHUNK_BYTES; i += PAGE_BYTES) {
+                    chunk[i] = 1;
+                }
+                yield chunk;
+            }
+            case DIRECT -> touch(ByteBuffer.allocateDirect(CHUNK_BYTES));
+            case MAPPED -> mapRegion();
+        };
+    }
+
+    private MappedRegion mapRegion() {
+        Path file = mappedDir.resolve("memory-pressure-" + ProcessHandle.current().pid() + "-" + mappedFileCounter.incrementAndGet() + ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, CHUNK_BYTES);
+            touch(buffer);
+            return new MappedRegion(file, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer touch(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i += PAGE_BYTES) {
+            buffer.put(i, (byte) 1);
+        }
+        return buffer;
+    }
+
+    private static void release(Pool pool, Object chunk) {
+        if (pool == Pool.DIRECT) {
+            Cleaner.clean((ByteBuffer) chunk);
+        } else if (pool == Pool.MAPPED) {
+            MappedRegion region = (MappedRegion) chunk;
+            Cleaner.clean(region.buffer());
+            try {
+                Files.deleteIfExists(region.file());
+            } catch (IOException e) {
+                // Left for the OS to clean up with the temp directory
+            }
+        }
+    }
+
+    private record MappedRegion(Path file, MappedByteBuffer buffer) {
+    }
+
+    // Frees direct and mapped buffers immediately via sun.misc.Unsafe.invokeCleaner, looked up
+    // reflectively so the build does not depend on the internal API; without it the GC frees them
+    private static final class Cleaner {
+
+        private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+        static void clean(ByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                // Left for the GC
+            }
+        }
+
+        private static MethodHandle lookupInvokeCleaner() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                return MethodHandles.lookup()
+                        .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                        .bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -2,13 +2,13 @@ package com.example.resources;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.MemoryMXBean;
-import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,7 +25,16 @@ public class ResourceLimitsApplication {
 @RestController
 class ResourceController {
     
-    private List<byte[]> memoryHog = new ArrayList<>();
+    private final ResourceSampler resourceSampler;
+    private final CpuWorkloadEngine cpuWorkloadEngine;
+    private final MemoryPressureSimulator memoryPressure;
+    
+    ResourceController(ResourceSampler resourceSampler, CpuWorkloadEngine cpuWorkloadEngine,
+                       MemoryPressureSimulator memoryPressure) {
+        this.resourceSampler = resourceSampler;
+        this.cpuWorkloadEngine = cpuWorkloadEngine;
+        this.memoryPressure = memoryPressure;
+    }
     
     @GetMapping("/")
     public String home() {
@@ -33,10 +42,9 @@ class ResourceController {
     }
     
     @GetMapping("/resources")
-    public Map<String, Object> getResources() {
+    public Map<String, Object> getResources(@RequestParam(defaultValue = "12") int history) {
         Runtime runtime = Runtime.getRuntime();
-        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
-        MemoryUsage heapUsage = memoryBean.getHeapMemoryUsage();
+        ResourceSample latest = resourceSampler.latest();
         
         Map<String, Object> resources = new HashMap<>();
         
@@ -49,76 +57,158 @@ class ResourceController {
         memory.put("totalMemoryMB", runtime.totalMemory() / (1024 * 1024));
         memory.put("freeMemoryMB", runtime.freeMemory() / (1024 * 1024));
         memory.put("usedMemoryMB", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
-        memory.put("heapUsedMB", heapUsage.getUsed() / (1024 * 1024));
-        memory.put("heapMaxMB", heapUsage.getMax() / (1024 * 1024));
+        memory.put("heapUsedMB", latest.heapUsedBytes() / (1024 * 1024));
+        memory.put("heapMaxMB", latest.heapMaxBytes() / (1024 * 1024));
         resources.put("memory", memory);
         
-        // Container limits (if available)
-        Map<String, String> containerInfo = new HashMap<>();
-        containerInfo.put("note", "Use kubectl to see actual resource limits");
-        resources.put("containerLimits", containerInfo);
+        // Off-heap memory (in MB)
+        Map<String, Long> offHeap = new HashMap<>();
+        offHeap.put("metaspaceMB", latest.metaspaceUsedBytes() / (1024 * 1024));
+        offHeap.put("codeCacheMB", latest.codeCacheUsedBytes() / (1024 * 1024));
+        offHeap.put("nonHeapCommittedMB", latest.nonHeapCommittedBytes() / (1024 * 1024));
+        offHeap.put("directBuffersMB", latest.directBufferBytes() / (1024 * 1024));
+        offHeap.put("mappedBuffersMB", latest.mappedBufferBytes() / (1024 * 1024));
+        offHeap.put("threads", (long) latest.threadCount());
+        resources.put("offHeap", offHeap);
+        
+        // Container limits and usage read from the cgroup filesystem
+        resources.put("containerLimits", containerLimits(latest.cgroup()));
+        
+        // GC pause totals since JVM start
+        Map<String, Object> gc = new HashMap<>();
+        gc.put("collections", latest.gcCount());
+        gc.put("totalPauseMs", latest.gcTimeMs());
+        latest.collectors().forEach(c -> gc.put(c.name(), Map.of("collections", c.count(), "totalPauseMs", c.timeMs())));
+        resources.put("gc", gc);
+        
+        // Short time series, one entry per sampler tick (deltas are per interval)
+        resources.put("sampleIntervalMs", resourceSampler.getIntervalMs());
+        // history entries need history + 1 samples; clamped so a huge or negative value cannot overflow
+        int points = Math.max(0, Math.min(history, resourceSampler.getHistorySize() - 1));
+        resources.put("history", timeSeries(resourceSampler.history(points + 1)));
         
         return resources;
     }
     
-    // Simulate CPU-intensive workload
-    @GetMapping("/cpu-load")
-    public Map<String, Object> cpuLoad(@RequestParam(defaultValue = "5") int seconds) {
-        long startTime = System.currentTimeMillis();
-        long endTime = startTime + (seconds * 1000L);
-        
-        // CPU-intensive calculation
-        double result = 0;
-        while (System.currentTimeMillis() < endTime) {
-            result += Math.sqrt(Math.random() * 1000);
+    private Map<String, Object> containerLimits(CgroupStats cgroup) {
+        Map<String, Object> limits = new HashMap<>();
+        limits.put("cgroupVersion", cgroup.version());
+        limits.put("cpuQuotaCores", cgroup.effectiveCpus() > 0 ? cgroup.effectiveCpus() : "unlimited");
+        limits.put("cpuUsageSeconds", cgroup.cpuUsageUs() / 1_000_000.0);
+        limits.put("cpuPeriods", cgroup.nrPeriods());
+        limits.put("cpuThrottledPeriods", cgroup.nrThrottled());
+        limits.put("cpuThrottledSeconds", cgroup.throttledUs() / 1_000_000.0);
+        limits.put("memoryLimitMB", cgroup.hasMemoryLimit() ? cgroup.memoryLimitBytes() / (1024 * 1024) : "unlimited");
+        limits.put("memoryUsageMB", cgroup.memoryUsageBytes() / (1024 * 1024));
+        limits.put("memoryAnonMB", cgroup.memoryAnonBytes() / (1024 * 1024));
+        limits.put("memoryFileCacheMB", cgroup.memoryFileBytes() / (1024 * 1024));
+        limits.put("processRssMB", cgroup.processRssBytes() / (1024 * 1024));
+        if (cgroup.hasMemoryLimit() && cgroup.processRssBytes() > 0) {
+            limits.put("rssPercentOfLimit", 100.0 * cgroup.processRssBytes() / cgroup.memoryLimitBytes());
         }
+        return limits;
+    }
+    
+    private List<Map<String, Object>> timeSeries(List<ResourceSample> samples) {
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (int i = 1; i < samples.size(); i++) {
+            ResourceSample previous = samples.get(i - 1);
+            ResourceSample current = samples.get(i);
+            long periods = current.cgroup().nrPeriods() - previous.cgroup().nrPeriods();
+            long throttled = current.cgroup().nrThrottled() - previous.cgroup().nrThrottled();
+            long elapsedUs = (current.timestamp().toEpochMilli() - previous.timestamp().toEpochMilli()) * 1000;
+            
+            Map<String, Object> point = new HashMap<>();
+            point.put("timestamp", current.timestamp().toString());
+            point.put("cpuCoresUsed", elapsedUs > 0 ? (double) (current.cgroup().cpuUsageUs() - previous.cgroup().cpuUsageUs()) / elapsedUs : 0.0);
+            point.put("throttledPeriods", throttled);
+            point.put("throttledRatio", periods > 0 ? (double) throttled / periods : 0.0);
+            point.put("processRssMB", current.cgroup().processRssBytes() / (1024 * 1024));
+            point.put("heapUsedMB", current.heapUsedBytes() / (1024 * 1024));
+            point.put("gcPauseMs", current.gcTimeMs() - previous.gcTimeMs());
+            series.add(point);
+        }
+        return series;
+    }
+    
+    // Simulate CPU-intensive workload on N threads at a target duty cycle
+    @GetMapping("/cpu-load")
+    public Map<String, Object> cpuLoad(@RequestParam(defaultValue = "5") int seconds,
+                                       @RequestParam(defaultValue = "1") int threads,
+                                       @RequestParam(defaultValue = "100") int dutyCycle,
+                                       @RequestParam(defaultValue = "false") boolean async) {
+        CpuLoadJob job = cpuWorkloadEngine.start(threads, seconds, dutyCycle);
         
-        long duration = System.currentTimeMillis() - startTime;
+        if (async) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "CPU load job started");
+            response.put("jobId", job.getId());
+            response.put("status", "/cpu-load/jobs/" + job.getId());
+            return response;
+        }
         
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>(job.getCompletion().join().report(cpuWorkloadEngine.currentCgroup()));
         response.put("message", "CPU load simulation completed");
-        response.put("durationMs", duration);
-        response.put("requestedSeconds", seconds);
-        response.put("result", result);
-        
         return response;
     }
     
-    // Simulate memory allocation
+    @GetMapping("/cpu-load/jobs")
+    public List<Map<String, Object>> cpuLoadJobs() {
+        CgroupStats current = cpuWorkloadEngine.currentCgroup();
+        return cpuWorkloadEngine.list().stream().map(job -> job.report(current)).toList();
+    }
+    
+    @GetMapping("/cpu-load/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cpuLoadJob(@PathVariable String id) {
+        CpuLoadJob job = cpuWorkloadEngine.get(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.report(cpuWorkloadEngine.currentCgroup()));
+    }
+    
+    @DeleteMapping("/cpu-load/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cancelCpuLoadJob(@PathVariable String id) {
+        CpuLoadJob job = cpuWorkloadEngine.cancel(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.getCompletion().join().report(cpuWorkloadEngine.currentCgroup()));
+    }
+    
+    // Simulate memory allocation in heap, direct or mapped memory
     @GetMapping("/allocate-memory")
-    public Map<String, Object> allocateMemory(@RequestParam(defaultValue = "10") int megabytes) {
-        try {
-            // Allocate memory in chunks
-            for (int i = 0; i < megabytes; i++) {
-                byte[] chunk = new byte[1024 * 1024]; // 1 MB
-                memoryHog.add(chunk);
-            }
-            
-            Runtime runtime = Runtime.getRuntime();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Memory allocated successfully");
-            response.put("allocatedMB", megabytes);
-            response.put("totalAllocatedMB", memoryHog.size());
-            response.put("usedMemoryMB", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
-            response.put("maxMemoryMB", runtime.maxMemory() / (1024 * 1024));
-            
-            return response;
-        } catch (OutOfMemoryError e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", "OutOfMemoryError");
+    public Map<String, Object> allocateMemory(@RequestParam(defaultValue = "10") int megabytes,
+                                              @RequestParam(defaultValue = "HEAP") MemoryPressureSimulator.Pool pool) {
+        int allocated = memoryPressure.allocate(pool, megabytes);
+        
+        Runtime runtime = Runtime.getRuntime();
+        
+        Map<String, Object> response = new HashMap<>();
+        if (allocated < megabytes) {
+            response.put("error", memoryPressure.status().get("lastError"));
             response.put("message", "Cannot allocate more memory - limit reached");
-            response.put("totalAllocatedMB", memoryHog.size());
-            
-            return response;
+        } else {
+            response.put("message", "Memory allocated successfully");
         }
+        response.put("pool", pool);
+        response.put("allocatedMB", allocated);
+        response.put("totalAllocatedMB", memoryPressure.allocatedMb(pool));
+        response.put("usedMemoryMB", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        response.put("maxMemoryMB", runtime.maxMemory() / (1024 * 1024));
+        
+        return response;
     }
     
-    // Free allocated memory
+    // Free allocated memory (all pools unless one is given)
     @GetMapping("/free-memory")
-    public Map<String, Object> freeMemory() {
-        int freedMB = memoryHog.size();
-        memoryHog.clear();
+    public Map<String, Object> freeMemory(@RequestParam(required = false) MemoryPressureSimulator.Pool pool) {
+        long freedMB = 0;
+        for (MemoryPressureSimulator.Pool p : MemoryPressureSimulator.Pool.values()) {
+            if (pool == null || pool == p) {
+                freedMB += memoryPressure.free(p);
+            }
+        }
         System.gc(); // Suggest garbage collection
         
         Runtime runtime = Runtime.getRuntime();
@@ -134,20 +224,48 @@ class ResourceController {
     // Simulate memory leak
     @GetMapping("/memory-leak")
     public Map<String, Object> memoryLeak(@RequestParam(defaultValue = "1") int iterations) {
-        List<byte[]> leak = new ArrayList<>();
-        
-        for (int i = 0; i < iterations; i++) {
-            leak.add(new byte[1024 * 1024]); // Add 1MB per iteration
-        }
-        
-        // Intentionally keep reference to prevent GC
-        memoryHog.addAll(leak);
+        // Intentionally keep references to prevent GC
+        int leaked = memoryPressure.allocate(MemoryPressureSimulator.Pool.HEAP, iterations);
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Memory leak simulated");
-        response.put("leakedMB", iterations);
-        response.put("totalLeakedMB", memoryHog.size());
+        response.put("leakedMB", leaked);
+        response.put("totalLeakedMB", memoryPressure.allocatedMb(MemoryPressureSimulator.Pool.HEAP));
+        
+        return response;
+    }
+    
+    // Grow one pool at a steady rate, e.g. to reproduce OOMKill vs Java OOM vs GC thrash
+    @GetMapping("/memory-pressure/grow")
+    public Map<String, Object> growMemory(@RequestParam(defaultValue = "HEAP") MemoryPressureSimulator.Pool pool,
+                                          @RequestParam(defaultValue = "10") double rateMbPerSecond,
+                                          @RequestParam(defaultValue = "256") int targetMB) {
+        memoryPressure.startGrowth(pool, rateMbPerSecond, targetMB);
+        return memoryPressureStatus();
+    }
+    
+    @GetMapping("/memory-pressure/stop")
+    public Map<String, Object> stopMemoryGrowth() {
+        memoryPressure.stopGrowth();
+        return memoryPressureStatus();
+    }
+    
+    @GetMapping("/memory-pressure")
+    public Map<String, Object> memoryPressureStatus() {
+        Map<String, Object> response = new HashMap<>(memoryPressure.status());
+        ResourceSample latest = resourceSampler.latest();
+        response.put("heapUsedMB", latest.heapUsedBytes() / (1024 * 1024));
+        response.put("directBuffersMB", latest.directBufferBytes() / (1024 * 1024));
+        response.put("mappedBuffersMB", latest.mappedBufferBytes() / (1024 * 1024));
+        response.put("processRssMB", latest.cgroup().processRssBytes() / (1024 * 1024));
+        response.put("containerMemoryUsageMB", latest.cgroup().memoryUsageBytes() / (1024 * 1024));
         
+        // Share of wall-clock time spent in GC pauses over the retained sample window
+        List<ResourceSample> window = resourceSampler.history(Integer.MAX_VALUE);
+        ResourceSample first = window.isEmpty() ? latest : window.get(0);
+        long elapsedMs = latest.timestamp().toEpochMilli() - first.timestamp().toEpochMilli();
+        response.put("gcOverheadPercent", elapsedMs > 0 ? 100.0 * (latest.gcTimeMs() - first.gcTimeMs()) / elapsedMs : 0.0);
+        response.put("gcWindowSeconds", elapsedMs / 1000);
         return response;
     }
     
@@ -0,0 +1,31 @@
+package com.example.resources;
+
+import java.time.Instant;
+import java.util.List;
+
+// One tick of ResourceSampler: cgroup counters plus JVM heap, off-heap and GC totals
+public record ResourceSample(
+        Instant timestamp,
+        CgroupStats cgroup,
+        long heapUsedBytes,
+        long heapCommittedBytes,
+        long heapMaxBytes,
+        long metaspaceUsedBytes,
+        long codeCacheUsedBytes,
+        long nonHeapCommittedBytes,
+        long directBufferBytes,
+        long mappedBufferBytes,
+        int threadCount,
+        List<GcTotals> collectors) {
+
+    public record GcTotals(String name, long count, long timeMs) {
+    }
+
+    public long gcCount() {
+        return collectors.stream().mapToLong(GcTotals::count).sum();
+    }
+
+    public long gcTimeMs() {
+        return collectors.stream().mapToLong(GcTotals::timeMs).sum();
+    }
+}
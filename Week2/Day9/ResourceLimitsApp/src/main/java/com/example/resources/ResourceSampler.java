@@ -0,0 +1,145 @@
+package com.example.resources;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Samples cgroup and JVM resource usage on a background ticker into a fixed-size ring buffer,
+ * so /resources only reads already collected samples.
+ */
+@Component
+public class ResourceSampler {
+
+    private final CgroupReader cgroupReader;
+    private final long intervalMs;
+    private final AtomicReferenceArray<ResourceSample> ring;
+
+    // Total samples taken; only the ticker thread writes it
+    private volatile long written;
+    private ScheduledExecutorService ticker;
+
+    public ResourceSampler(@Value("${resources.cgroup.root:/sys/fs/cgroup}") String cgroupRoot,
+                           @Value("${resources.sample-interval-ms:5000}") long intervalMs,
+                           @Value("${resources.history-size:60}") int historySize) {
+        this.cgroupReader = new CgroupReader(cgroupRoot);
+        this.intervalMs = intervalMs;
+        this.ring = new AtomicReferenceArray<>(historySize);
+    }
+
+    @PostConstruct
+    public void start() {
+        sample();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    public CgroupReader getCgroupReader() {
+        return cgroupReader;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public ResourceSample latest() {
+        long count = written;
+        return count == 0 ? null : ring.get((int) ((count - 1) % ring.length()));
+    }
+
+    // Most samples history() returns; one ring slot is kept back for the ticker's next write
+    public int getHistorySize() {
+        return ring.length() - 1;
+    }
+
+    // Up to the last n samples, oldest first
+    public List<ResourceSample> history(int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        long count = written;
+        int size = (int) Math.min(Math.min(n, count), getHistorySize());
+        List<ResourceSample> samples = new ArrayList<>(size);
+        for (long i = count - size; i < count; i++) {
+            samples.add(ring.get((int) (i % ring.length())));
+        }
+        return samples;
+    }
+
+    void sample() {
+        long count = written;
+        ring.set((int) (count % ring.length()), takeSample());
+        written = count + 1;
+    }
+
+    private ResourceSample takeSample() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+
+        long metaspace = 0;
+        long codeCache = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.NON_HEAP) {
+                continue;
+            }
+            if (pool.getName().equals("Metaspace")) {
+                metaspace = pool.getUsage().getUsed();
+            } else if (pool.getName().startsWith("CodeHeap") || pool.getName().equals("Code Cache")) {
+                codeCache += pool.getUsage().getUsed();
+            }
+        }
+
+        long direct = 0;
+        long mapped = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                direct = pool.getMemoryUsed();
+            } else if (pool.getName().equals("mapped")) {
+                mapped = pool.getMemoryUsed();
+            }
+        }
+
+        List<ResourceSample.GcTotals> collectors = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.add(new ResourceSample.GcTotals(gc.getName(), gc.getCollectionCount(), gc.getCollectionTime()));
+        }
+
+        return new ResourceSample(
+                Instant.now(),
+                cgroupReader.read(),
+                heap.getUsed(),
+                heap.getCommitted(),
+                heap.getMax(),
+                metaspace,
+                codeCache,
+                nonHeap.getCommitted(),
+                direct,
+                mapped,
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                List.copyOf(collectors));
+    }
+}
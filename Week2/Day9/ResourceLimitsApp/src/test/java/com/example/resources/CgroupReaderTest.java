@@ -0,0 +1,141 @@
+package com.example.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs CgroupReader against fake cgroup trees laid out like the kernel's
+class CgroupReaderTest {
+
+    private static final String PROC_STATUS = "Name:\tjava\nVmRSS:\t  204800 kB\n";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void v2WithLimits() throws IOException {
+        write("cgroup.controllers", "cpu memory");
+        write("cpu.max", "50000 100000");
+        write("cpu.stat", "usage_usec 1500000\nnr_periods 40\nnr_throttled 7\nthrottled_usec 350000");
+        write("memory.max", "536870912");
+        write("memory.current", "268435456");
+        write("memory.stat", "anon 201326592\nfile 50331648\nkernel 4096");
+
+        CgroupStats stats = reader().read();
+
+        assertEquals("v2", stats.version());
+        assertEquals(50_000, stats.cpuQuotaUs());
+        assertEquals(100_000, stats.cpuPeriodUs());
+        assertEquals(0.5, stats.effectiveCpus());
+        assertEquals(1_500_000, stats.cpuUsageUs());
+        assertEquals(40, stats.nrPeriods());
+        assertEquals(7, stats.nrThrottled());
+        assertEquals(350_000, stats.throttledUs());
+        assertEquals(536_870_912, stats.memoryLimitBytes());
+        assertTrue(stats.hasMemoryLimit());
+        assertEquals(268_435_456, stats.memoryUsageBytes());
+        assertEquals(201_326_592, stats.memoryAnonBytes());
+        assertEquals(50_331_648, stats.memoryFileBytes());
+        assertEquals(204_800 * 1024, stats.processRssBytes());
+    }
+
+    @Test
+    void v2WithoutLimits() throws IOException {
+        write("cgroup.controllers", "cpu memory");
+        write("cpu.max", "max 100000");
+        write("memory.max", "max");
+        write("memory.current", "1024");
+
+        CgroupStats stats = reader().read();
+
+        assertEquals(CgroupReader.UNLIMITED, stats.cpuQuotaUs());
+        assertEquals(-1, stats.effectiveCpus());
+        assertEquals(CgroupReader.UNLIMITED, stats.memoryLimitBytes());
+        assertFalse(stats.hasMemoryLimit());
+    }
+
+    @Test
+    void v2WithoutMemoryStat() throws IOException {
+        write("cgroup.controllers", "cpu memory");
+        write("cpu.max", "100000 100000");
+        write("memory.max", "1073741824");
+        write("memory.current", "4096");
+
+        CgroupStats stats = reader().read();
+
+        assertEquals(1_073_741_824, stats.memoryLimitBytes());
+        assertEquals(4096, stats.memoryUsageBytes());
+        assertEquals(CgroupReader.UNLIMITED, stats.memoryAnonBytes());
+        assertEquals(CgroupReader.UNLIMITED, stats.memoryFileBytes());
+    }
+
+    @Test
+    void v1WithLimits() throws IOException {
+        write("cpu,cpuacct/cpu.cfs_quota_us", "25000");
+        write("cpu,cpuacct/cpu.cfs_period_us", "100000");
+        write("cpu,cpuacct/cpu.stat", "nr_periods 10\nnr_throttled 3\nthrottled_time 9000000");
+        write("cpu,cpuacct/cpuacct.usage", "2000000000");
+        write("memory/memory.limit_in_bytes", "268435456");
+        write("memory/memory.usage_in_bytes", "134217728");
+        write("memory/memory.stat", "cache 1000\nrss 2000\ntotal_cache 16777216\ntotal_rss 100663296");
+
+        CgroupStats stats = reader().read();
+
+        assertEquals("v1", stats.version());
+        assertEquals(0.25, stats.effectiveCpus());
+        assertEquals(2_000_000, stats.cpuUsageUs());
+        assertEquals(3, stats.nrThrottled());
+        assertEquals(9_000, stats.throttledUs());
+        assertEquals(268_435_456, stats.memoryLimitBytes());
+        assertEquals(134_217_728, stats.memoryUsageBytes());
+        assertEquals(100_663_296, stats.memoryAnonBytes());
+        assertEquals(16_777_216, stats.memoryFileBytes());
+    }
+
+    @Test
+    void v1WithoutLimits() throws IOException {
+        write("cpu/cpu.cfs_quota_us", "-1");
+        write("cpu/cpu.cfs_period_us", "100000");
+        write("cpuacct/cpuacct.usage", "5000");
+        // Long.MAX_VALUE rounded down to a 4 KiB page
+        write("memory/memory.limit_in_bytes", "9223372036854771712");
+        write("memory/memory.usage_in_bytes", "8192");
+        write("memory/memory.stat", "cache 4096\nrss 12288");
+
+        CgroupStats stats = reader().read();
+
+        assertEquals("v1", stats.version());
+        assertEquals(CgroupReader.UNLIMITED, stats.cpuQuotaUs());
+        assertEquals(CgroupReader.UNLIMITED, stats.memoryLimitBytes());
+        assertFalse(stats.hasMemoryLimit());
+        assertEquals(12_288, stats.memoryAnonBytes());
+        assertEquals(4_096, stats.memoryFileBytes());
+    }
+
+    @Test
+    void noCgroup() throws IOException {
+        CgroupStats stats = reader().read();
+
+        assertEquals("none", stats.version());
+        assertEquals(CgroupReader.UNLIMITED, stats.memoryLimitBytes());
+        assertEquals(204_800 * 1024, stats.processRssBytes());
+    }
+
+    private CgroupReader reader() throws IOException {
+        Path procStatus = Files.writeString(root.resolve("proc-status"), PROC_STATUS);
+        return new CgroupReader(root, procStatus);
+    }
+
+    private void write(String file, String content) throws IOException {
+        Path path = root.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content + "\n");
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Feeds HeapGrowthDetector synthetic post-GC samples; a 150 MiB container with 140 MiB anonymous
+// memory leaves 10 MiB of headroom, far tighter than the test JVM's heap
+class HeapGrowthDetectorTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    void steadyGrowthIsSuspected() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        // 1 MiB every 10s: 10 MiB of headroom lasts 100s, inside the 600s horizon
+        for (int i = 0; i < 5; i++) {
+            detector.record(at(i * 10), (10 + i) * MIB);
+        }
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(5, trend.samples());
+        assertEquals(14 * MIB, trend.liveBytes());
+        assertEquals(MIB / 10.0, trend.bytesPerSecond(), 1e-6);
+        assertEquals(1.0, trend.fit(), 1e-9);
+        assertEquals("container", trend.limit());
+        assertEquals(10 * MIB, trend.headroomBytes());
+        assertEquals(100, trend.secondsToLimit(), 1e-6);
+        assertTrue(trend.suspected());
+    }
+
+    @Test
+    void fewerThanMinSamplesIsNotSuspected() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        detector.record(at(0), 10 * MIB);
+        detector.record(at(10), 11 * MIB);
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(2, trend.samples());
+        assertEquals(100, trend.secondsToLimit(), 1e-6);
+        assertFalse(trend.suspected());
+
+        detector.record(at(20), 12 * MIB);
+        assertTrue(detector.trend().suspected());
+    }
+
+    @Test
+    void poorFitIsNotSuspected() {
+        long[] live = {10, 30, 11, 31, 12, 32, 14};
+        HeapGrowthDetector strict = detector(3, 0.8);
+        HeapGrowthDetector lenient = detector(3, 0);
+        for (int i = 0; i < live.length; i++) {
+            strict.record(at(i * 10), live[i] * MIB);
+            lenient.record(at(i * 10), live[i] * MIB);
+        }
+
+        HeapGrowthDetector.Trend trend = strict.trend();
+
+        assertTrue(trend.bytesPerSecond() > 0);
+        assertTrue(trend.fit() < 0.8, "fit " + trend.fit());
+        assertTrue(trend.secondsToLimit() < 600);
+        assertFalse(trend.suspected());
+        assertTrue(lenient.trend().suspected());
+    }
+
+    @Test
+    void slowGrowthBeyondHorizonIsNotSuspected() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        // 1 MiB per 100s: 10 MiB of headroom lasts 1000s, past the 600s horizon
+        for (int i = 0; i < 5; i++) {
+            detector.record(at(i * 100), (10 + i) * MIB);
+        }
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(1.0, trend.fit(), 1e-9);
+        assertEquals(1000, trend.secondsToLimit(), 1e-6);
+        assertFalse(trend.suspected());
+    }
+
+    @Test
+    void flatLiveSetHasNoTimeToLimit() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        for (int i = 0; i < 5; i++) {
+            detector.record(at(i * 10), 10 * MIB);
+        }
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(0, trend.bytesPerSecond());
+        assertEquals(0, trend.fit());
+        assertTrue(Double.isNaN(trend.secondsToLimit()));
+        assertFalse(trend.suspected());
+    }
+
+    @Test
+    void dropBelowWindowStartRestartsTheTrend() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        for (int i = 0; i < 5; i++) {
+            detector.record(at(i * 10), (10 + i) * MIB);
+        }
+        detector.record(at(50), 8 * MIB);
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(1, trend.samples());
+        assertEquals(8 * MIB, trend.liveBytes());
+        assertFalse(trend.suspected());
+    }
+
+    @Test
+    void samplesOutsideTheWindowAreDropped() {
+        HeapGrowthDetector detector = detector(3, 0.8);
+        detector.record(now - 700_000, 5 * MIB);
+        for (int i = 0; i < 3; i++) {
+            detector.record(at(i * 10), (10 + i) * MIB);
+        }
+
+        HeapGrowthDetector.Trend trend = detector.trend();
+
+        assertEquals(3, trend.samples());
+        assertEquals(MIB / 10.0, trend.bytesPerSecond(), 1e-6);
+    }
+
+    @Test
+    void rejectsFewerThanThreeMinSamples() {
+        assertThrows(IllegalArgumentException.class, () -> detector(2, 0.8));
+    }
+
+    // Seconds into a series that ends one minute before now, well inside the 600s window
+    private long at(long seconds) {
+        return now - 600_000 + 60_000 + seconds * 1000;
+    }
+
+    private static HeapGrowthDetector detector(int minSamples, double minFit) {
+        return new HeapGrowthDetector(new FixedSampler(), 600, minSamples, minFit, 600, 120);
+    }
+
+    // Reports the same container every time instead of reading a cgroup tree on a ticker
+    private static class FixedSampler extends ResourceSampler {
+
+        private final ResourceSample sample;
+
+        FixedSampler() {
+            super("/nonexistent", 5000, 2);
+            CgroupStats cgroup = new CgroupStats("v2", CgroupReader.UNLIMITED, 100_000, 0, 0, 0, 0,
+                    150 * MIB, 145 * MIB, 140 * MIB, 5 * MIB, 145 * MIB);
+            this.sample = new ResourceSample(Instant.now(), cgroup, 0, 0, 0, 0, 0, 0, 0, 0, 0, List.of());
+        }
+
+        @Override
+        public ResourceSample latest() {
+            return sample;
+        }
+    }
+}
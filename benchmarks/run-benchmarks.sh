@@ -0,0 +1,50 @@
+#!/bin/bash
+
+# Builds the benchmark jar, runs the JMH suites with the GC profiler and writes JSON results,
+# then compares them against the committed baseline.
+#
+# Usage: ./run-benchmarks.sh [benchmark-regex] [extra JMH options...]
+#   QUICK=true            short warmup/measurement for a smoke run (not comparable to the baseline)
+#   THRESHOLD=10          allowed regression in percent before the comparison fails
+#   UPDATE_BASELINE=true  store this run (without raw samples, needs jq) as baseline/baseline.json
+#
+# Only compare runs from the same machine type; the baseline records the JVM and host it came from.
+
+set -e
+cd "$(dirname "$0")"
+
+FILTER=${1:-.}
+shift || true
+THRESHOLD=${THRESHOLD:-10}
+RESULT_DIR=results
+RESULT_FILE="$RESULT_DIR/$(date +%Y%m%d-%H%M%S).json"
+BASELINE=baseline/baseline.json
+
+JMH_OPTS="-prof gc -rf json -rff $RESULT_FILE"
+if [ "$QUICK" = "true" ]; then
+    JMH_OPTS="$JMH_OPTS -wi 1 -w 1s -i 2 -r 1s"
+fi
+
+echo "=========================================="
+echo "JMH benchmarks: $FILTER"
+echo "=========================================="
+
+mvn -B -q package -DskipTests
+mkdir -p "$RESULT_DIR"
+java -jar target/benchmarks.jar "$FILTER" $JMH_OPTS "$@"
+
+echo ""
+echo "Results written to $RESULT_FILE"
+
+if [ "$UPDATE_BASELINE" = "true" ]; then
+    # Raw samples make the file huge and the comparison only needs the summaries
+    jq 'map(.primaryMetric |= del(.rawData, .rawDataHistogram)
+            | .secondaryMetrics |= with_entries(.value |= del(.rawData, .rawDataHistogram)))' \
+        "$RESULT_FILE" > "$BASELINE"
+    echo "Baseline updated: $BASELINE"
+elif [ -f "$BASELINE" ]; then
+    echo ""
+    java -cp target/benchmarks.jar com.example.benchmarks.BaselineComparator "$BASELINE" "$RESULT_FILE" "$THRESHOLD"
+else
+    echo "No baseline at $BASELINE; rerun with UPDATE_BASELINE=true to create one"
+fi
@@ -0,0 +1,124 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and exits with status 1 when a
+ * benchmark regressed by more than the threshold. Checked per benchmark, mode and parameter set:
+ * throughput (lower is worse), sample-time mean and p99 (higher is worse) and, when the run used
+ * -prof gc, bytes allocated per operation.
+ *
+ * Usage: java -cp benchmarks.jar com.example.benchmarks.BaselineComparator baseline.json current.json [thresholdPercent]
+ */
+public class BaselineComparator {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    // Allocation differences below this are noise from escape analysis decisions, not regressions
+    private static final double MIN_ALLOC_DELTA_BYTES = 32;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s%n", entry.getKey(), "(new)");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+            compare(regressions, entry.getKey(), unit(after),
+                    score(before), score(after), higherIsBetter, threshold, 0);
+            if ("sample".equals(after.path("mode").asText())) {
+                compare(regressions, entry.getKey() + " p99", unit(after),
+                        p99(before), p99(after), false, threshold, 0);
+            }
+            compare(regressions, entry.getKey() + " alloc", "B/op",
+                    allocation(before), allocation(after), false, threshold, MIN_ALLOC_DELTA_BYTES);
+        }
+
+        System.out.println();
+        if (regressions.isEmpty()) {
+            System.out.printf("No regressions beyond %.0f%%%n", threshold * 100);
+        } else {
+            System.out.printf("%d regression(s) beyond %.0f%%:%n", regressions.size(), threshold * 100);
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    private static void compare(List<String> regressions, String name, String unit, double before, double after,
+                                boolean higherIsBetter, double threshold, double minDelta) {
+        if (Double.isNaN(before) || Double.isNaN(after)) {
+            return;
+        }
+        double change = before == 0 ? 0 : (after - before) / before;
+        System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%n", name, before, after, change * 100, unit);
+
+        boolean worse = higherIsBetter ? change < -threshold : change > threshold;
+        if (worse && Math.abs(after - before) >= minDelta) {
+            regressions.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)", name, before, after, unit, change * 100));
+        }
+    }
+
+    // One entry per benchmark, mode and parameter combination
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static String unit(JsonNode result) {
+        return result.path("primaryMetric").path("scoreUnit").asText();
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble(Double.NaN);
+    }
+
+    private static double p99(JsonNode result) {
+        return result.path("primaryMetric").path("scorePercentiles").path("99.0").asDouble(Double.NaN);
+    }
+
+    // Older JMH versions prefix profiler metrics with a middle dot
+    private static double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOC_METRIC)) {
+                return metric.getValue().path("score").asDouble(Double.NaN);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /write-log throughput: LogStore in each durability mode against the FileWriter-per-request
+ * path it replaced. Runs with several threads because request threads append concurrently.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LogStoreBenchmark {
+
+    private static final String APP_NAME = "Spring Boot Config Demo";
+
+    @State(Scope.Benchmark)
+    public static class LogStoreState {
+
+        @Param({"BATCH", "PERIODIC"})
+        private LogStore.Durability durability;
+
+        private Path directory;
+        private LogStore logStore;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("logstore-bench");
+            logStore = new LogStore(directory.toString(), 64, durability, 1000, 256, 8192, 64, 5000);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            logStore.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FileWriterState {
+
+        private Path directory;
+        private File logFile;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("filewriter-bench");
+            logFile = directory.resolve("app.log").toFile();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public long logStoreAppend(LogStoreState state) throws IOException {
+        return state.logStore.append(LocalDateTime.now() + " - Log entry from " + APP_NAME + "\n");
+    }
+
+    // The original /write-log implementation: open, append and close a FileWriter per entry
+    @Benchmark
+    public File fileWriterAppend(FileWriterState state) throws IOException {
+        FileWriter writer = new FileWriter(state.logFile, true);
+        writer.write(LocalDateTime.now() + " - Log entry from " + APP_NAME + "\n");
+        writer.close();
+        return state.logFile;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.gatewayapi;
+
+import com.example.gatewayapi.controller.GatewayDemoController;
+import com.example.gatewayapi.json.HeaderJsonWriter;
+import com.example.gatewayapi.logging.BodyLogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GatewayDemoController handlers plus the JSON serialization Spring MVC performs on their result,
+ * using a request shaped like one forwarded by Traefik. The header endpoints stream into a reused
+ * response buffer, so their B/op is the garbage the handler itself creates per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayDemoControllerBenchmark {
+
+    private GatewayDemoController controller;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+    private BufferedResponse response;
+    private byte[] postBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same date handling as the Boot-configured ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        controller = new GatewayDemoController(new HeaderJsonWriter(objectMapper), new BodyLogSampler(0.01, 512));
+        ReflectionTestUtils.setField(controller, "appName", "Gateway API Demo");
+        ReflectionTestUtils.setField(controller, "appVersion", "1.0.0");
+
+        request = new MockHttpServletRequest("GET", "/api/headers");
+        request.setRemoteAddr("10.42.0.17");
+        request.setServerName("gateway-demo.local");
+        request.addHeader("Host", "gateway-demo.local");
+        request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 Chrome/120.0 Safari/537.36");
+        request.addHeader("Accept", "application/json, text/plain, */*");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        request.addHeader("Accept-Language", "en-US,en;q=0.9");
+        request.addHeader("X-Forwarded-For", "203.0.113.24, 10.42.0.1");
+        request.addHeader("X-Forwarded-Host", "gateway-demo.local");
+        request.addHeader("X-Forwarded-Port", "443");
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Server", "traefik-5d8f7c9b6-x2lqk");
+        request.addHeader("X-Real-Ip", "203.0.113.24");
+        request.addHeader("Traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        response = new BufferedResponse();
+
+        postBody = objectMapper.writeValueAsBytes(Map.of(
+                "orderId", "A-10023",
+                "customer", Map.of("id", 4711, "name", "Jane Doe", "tier", "gold"),
+                "items", List.of(
+                        Map.of("sku", "SKU-1", "quantity", 2, "price", 19.99),
+                        Map.of("sku", "SKU-2", "quantity", 1, "price", 5.49)),
+                "express", true));
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream getHeaders() throws Exception {
+        response.reset();
+        controller.getHeaders(request, response);
+        return response.body;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream getGatewayInfo() throws Exception {
+        response.reset();
+        controller.getGatewayInfo(request, response);
+        return response.body;
+    }
+
+    @Benchmark
+    public byte[] getInfo() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getInfo(request).getBody());
+    }
+
+    @Benchmark
+    public byte[] postData() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = objectMapper.readValue(postBody, Map.class);
+        return objectMapper.writeValueAsBytes(controller.postData(data).getBody());
+    }
+
+    /**
+     * MockHttpServletResponse writes its body one byte at a time; Tomcat's output stream takes
+     * whole buffers. This keeps the response infrastructure out of the measurement and reuses
+     * one body buffer across invocations, as Tomcat reuses its output buffer.
+     */
+    private static final class BufferedResponse extends MockHttpServletResponse {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            body.reset();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gatewayapi;
+
+import com.example.gatewayapi.controller.GatewayDemoController;
+import com.example.gatewayapi.ingest.BatchAck;
+import com.example.gatewayapi.ingest.IngestPipeline;
+import com.example.gatewayapi.ingest.NdjsonIngestor;
+import com.example.gatewayapi.json.HeaderJsonWriter;
+import com.example.gatewayapi.logging.BodyLogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request carrying the same records through POST /api/data (bind to a Map, echo it back)
+ * and through POST /api/ingest (stream NDJSON into the pipeline, return the ack).
+ * B/op from -prof gc is the heap allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    @Param({"100", "1000"})
+    private int records;
+
+    private ObjectMapper objectMapper;
+    private GatewayDemoController controller;
+    private IngestPipeline pipeline;
+    private NdjsonIngestor ingestor;
+    private byte[] jsonBody;
+    private byte[] ndjsonBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        controller = new GatewayDemoController(new HeaderJsonWriter(objectMapper), new BodyLogSampler(0.01, 512));
+        pipeline = new IngestPipeline(1_000_000, 1, 100);
+        ingestor = new NdjsonIngestor(pipeline, 64L * 1024 * 1024, 64 * 1024, 32);
+
+        List<Map<String, Object>> rows = new ArrayList<>(records);
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (int i = 0; i < records; i++) {
+            Map<String, Object> row = Map.of(
+                    "id", i,
+                    "sku", "SKU-" + i,
+                    "quantity", i % 5 + 1,
+                    "price", 19.99,
+                    "tags", List.of("gateway", "benchmark"));
+            rows.add(row);
+            ndjson.write(objectMapper.writeValueAsBytes(row));
+            ndjson.write('\n');
+        }
+        jsonBody = objectMapper.writeValueAsBytes(Map.of("records", rows));
+        ndjsonBody = ndjson.toString(StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+
+        BatchAck ack = ingestor.ingest(new ByteArrayInputStream(ndjsonBody));
+        if (ack.outcome() != BatchAck.Outcome.ACCEPTED || ack.accepted() != records) {
+            throw new IllegalStateException("Unexpected ack " + ack);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.stop();
+    }
+
+    @Benchmark
+    public byte[] postData() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = objectMapper.readValue(jsonBody, Map.class);
+        return objectMapper.writeValueAsBytes(controller.postData(data).getBody());
+    }
+
+    @Benchmark
+    public byte[] ingestNdjson() throws Exception {
+        return objectMapper.writeValueAsBytes(ingestor.ingest(new ByteArrayInputStream(ndjsonBody)));
+    }
+}
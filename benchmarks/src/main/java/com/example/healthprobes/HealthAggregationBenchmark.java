@@ -0,0 +1,80 @@
+package com.example.healthprobes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregated /actuator/health response for the database and externalService indicators:
+ * reading the cached snapshots probes see today versus running the checks inline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthAggregationBenchmark {
+
+    private List<CachedHealthIndicator> indicators;
+    private StatusAggregator statusAggregator;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        HealthCacheProperties properties = new HealthCacheProperties(
+                Duration.ofSeconds(10), Duration.ofSeconds(2), 3, 1, Duration.ofSeconds(30), Map.of());
+        indicators = List.of(new DatabaseHealthIndicator(properties), new ExternalServiceHealthIndicator(properties));
+        for (CachedHealthIndicator indicator : indicators) {
+            indicator.record(indicator.check());
+        }
+        statusAggregator = StatusAggregator.getDefault();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public byte[] cachedSnapshots() throws Exception {
+        Map<String, Health> components = new LinkedHashMap<>();
+        for (CachedHealthIndicator indicator : indicators) {
+            components.put(indicator.getName(), indicator.health());
+        }
+        return objectMapper.writeValueAsBytes(aggregate(components));
+    }
+
+    @Benchmark
+    public byte[] inlineChecks() throws Exception {
+        Map<String, Health> components = new LinkedHashMap<>();
+        for (CachedHealthIndicator indicator : indicators) {
+            components.put(indicator.getName(), indicator.check());
+        }
+        return objectMapper.writeValueAsBytes(aggregate(components));
+    }
+
+    private Map<String, Object> aggregate(Map<String, Health> components) {
+        Set<Status> statuses = components.values().stream().map(Health::getStatus).collect(Collectors.toSet());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", statusAggregator.getAggregateStatus(statuses));
+        body.put("components", components);
+        return body;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.instrumentation;
+
+import com.example.gatewayapi.controller.GatewayDemoController;
+import com.example.gatewayapi.json.HeaderJsonWriter;
+import com.example.gatewayapi.logging.BodyLogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What HandlerTimingInterceptor adds to every request: preHandle plus afterCompletion, recording
+ * into a Prometheus timer with and without the percentile histogram. Four threads share the
+ * timers, as concurrent requests on one controller method would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HandlerTimingBenchmark {
+
+    @Param({"true", "false"})
+    private boolean percentileHistogram;
+
+    private HandlerTimingInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/info");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        InstrumentationProperties properties = new InstrumentationProperties(true, percentileHistogram,
+                List.of(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+                        Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1)),
+                Duration.ofMillis(1), Duration.ofSeconds(10));
+        interceptor = new HandlerTimingInterceptor(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), properties);
+        GatewayDemoController controller =
+                new GatewayDemoController(new HeaderJsonWriter(new ObjectMapper()), new BodyLogSampler(0.01, 512));
+        handler = new HandlerMethod(controller, GatewayDemoController.class.getMethod("getInfo", HttpServletRequest.class));
+    }
+
+    @Benchmark
+    public void timedRequest(RequestState state) {
+        interceptor.preHandle(state.request, state.response, handler);
+        interceptor.afterCompletion(state.request, state.response, handler, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResourceController.getResources and its JSON serialization. The sampler ring is filled up front
+ * and its ticker interval is long, so only the read path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceControllerBenchmark {
+
+    private static final int HISTORY_SIZE = 60;
+
+    @Param({"0", "12"})
+    private int history;
+
+    private ResourceSampler resourceSampler;
+    private CpuWorkloadEngine cpuWorkloadEngine;
+    private MemoryPressureSimulator memoryPressure;
+    private ResourceController controller;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        resourceSampler = new ResourceSampler("/sys/fs/cgroup", TimeUnit.HOURS.toMillis(1), HISTORY_SIZE);
+        resourceSampler.start();
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            resourceSampler.sample();
+        }
+        cpuWorkloadEngine = new CpuWorkloadEngine(resourceSampler, 1);
+        memoryPressure = new MemoryPressureSimulator(System.getProperty("java.io.tmpdir"));
+        controller = new ResourceController(resourceSampler, cpuWorkloadEngine, memoryPressure);
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        memoryPressure.shutdown();
+        cpuWorkloadEngine.stop();
+        resourceSampler.stop();
+    }
+
+    @Benchmark
+    public byte[] getResources() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getResources(history));
+    }
+}
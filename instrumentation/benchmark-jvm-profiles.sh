@@ -0,0 +1,241 @@
+#!/bin/bash
+
+# Benchmark matrix for jvm-launcher.sh: ResourceLimitsApp under each QoS profile of its
+# kubernetes/ manifests, once with the JVM's own container defaults and once with the launcher.
+# Per run it records the heap the JVM chose, peak and idle RSS against the memory limit, GC pauses
+# and throughput under load.
+#
+# Usage: ./benchmark-jvm-profiles.sh [profile...]    (profiles: guaranteed burstable scheduled besteffort)
+#   MODE=docker   run the resource-limits image with the profile's --memory/--cpus/--cpu-shares
+#   MODE=local    run the thin layout on this machine (no Docker needed); limits are not enforced,
+#                 the launcher reads a fake cgroup tree and the defaults run gets -XX:MaxRAM and
+#                 -XX:ActiveProcessorCount, which is what the JVM derives from a real cgroup
+#   LIVE_PERCENT=20 WARMUP=2000 REQUESTS=4000 CONCURRENCY=16 IDLE_S=40 PORT=18096 IMAGE=resource-limits:1.0
+#
+# Phases per run: start, hold LIVE_PERCENT of the memory limit (of 256Mi for besteffort) as live
+# heap data, send WARMUP requests so the JIT has compiled the hot path, fire REQUESTS at /resources
+# with CONCURRENCY in flight, release the live data, idle IDLE_S (long enough for the launcher's
+# periodic G1 collection), then read RSS again. Admission control is turned off so every request
+# reaches the JVM.
+
+set -e
+cd "$(dirname "$0")"
+ROOT=$(cd .. && pwd)
+APP_DIR="$ROOT/Week2/Day9/ResourceLimitsApp"
+MAIN=com.example.resources.ResourceLimitsApplication
+
+MODE=${MODE:-docker}
+LIVE_PERCENT=${LIVE_PERCENT:-20}
+WARMUP=${WARMUP:-2000}
+REQUESTS=${REQUESTS:-4000}
+CONCURRENCY=${CONCURRENCY:-16}
+IDLE_S=${IDLE_S:-40}
+PORT=${PORT:-18096}
+IMAGE=${IMAGE:-resource-limits:1.0}
+RESULT_DIR=results
+RESULT_FILE="$RESULT_DIR/jvm-profiles-$(date +%Y%m%d-%H%M%S).json"
+
+# name|memory limit Mi|cpu limit m|memory request Mi|cpu request m   (0 = not set), as in kubernetes/
+PROFILES="
+guaranteed|256|250|256|250
+burstable|512|500|128|100
+scheduled|512|500|256|200
+besteffort|0|0|0|0
+"
+
+SELECTED="$*"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+BASE="http://localhost:$PORT"
+
+# Thin layout plus CDS archive, as the Dockerfile builds it
+prepare_local() {
+    local out="$WORK/app"
+    (cd "$ROOT/instrumentation" && mvn -B -q install -DskipTests > /dev/null)
+    (cd "$APP_DIR" && mvn -B -q clean package -DskipTests > /dev/null)
+    mkdir -p "$out"
+    cp "$APP_DIR"/target/*.jar "$out/fat.jar"
+    (cd "$out" && java -Djarmode=layertools -jar fat.jar extract --destination layers > /dev/null)
+    cp -r "$out/layers/dependencies/BOOT-INF/lib" "$out/lib"
+    cp "$APP_DIR"/target/*.jar.original "$out/app.jar"
+    echo "-Dspring.aot.enabled=false" > "$out/aot.args"
+    (cd "$out" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=error -Dspring.context.exit=onRefresh \
+        @aot.args -cp "$out/app.jar:$out/lib/*" "$MAIN" > /dev/null 2>&1)
+}
+
+# Fake cgroup v2 tree for the launcher in local mode; weight as the kubelet derives it from shares
+fake_cgroup() {
+    local dir=$1 memory=$2 cpu=$3 cpu_request=$4
+    local shares=$(( cpu_request > 0 ? cpu_request * 1024 / 1000 : 2 ))
+    mkdir -p "$dir"
+    touch "$dir/cgroup.controllers"
+    [ "$memory" -gt 0 ] && echo $(( memory * 1048576 )) > "$dir/memory.max" || echo max > "$dir/memory.max"
+    [ "$cpu" -gt 0 ] && echo "$(( cpu * 100 )) 100000" > "$dir/cpu.max" || echo "max 100000" > "$dir/cpu.max"
+    echo $(( 1 + (shares - 2) * 9999 / 262142 )) > "$dir/cpu.weight"
+}
+
+# Starts one run in the background; sets PID (local) or CONTAINER (docker)
+start_app() {
+    local profile=$1 variant=$2 memory=$3 cpu=$4 memory_request=$5 cpu_request=$6
+    local log="$WORK/$profile-$variant.log"
+    if [ "$MODE" = "docker" ]; then
+        CONTAINER="jvm-bench-$profile-$variant"
+        local limits=()
+        [ "$memory" -gt 0 ] && limits+=(--memory "${memory}m")
+        [ "$cpu" -gt 0 ] && limits+=(--cpus "$(awk -v m="$cpu" 'BEGIN {print m / 1000}')")
+        limits+=(--cpu-shares "$(( cpu_request > 0 ? cpu_request * 1024 / 1000 : 2 ))")
+        [ "$memory_request" -gt 0 ] && limits+=(-e "MEMORY_REQUEST=$(( memory_request * 1048576 ))")
+        [ "$variant" = "defaults" ] && limits+=(-e JVM_LAUNCHER=off)
+        limits+=(-e ADMISSION_ENABLED=false)
+        docker run -d --rm --name "$CONTAINER" -p "$PORT:8080" "${limits[@]}" "$IMAGE" > /dev/null
+    else
+        local app="$WORK/app"
+        if [ "$variant" = "defaults" ]; then
+            local emulate=()
+            [ "$memory" -gt 0 ] && emulate+=("-XX:MaxRAM=${memory}m")
+            [ "$cpu" -gt 0 ] && emulate+=("-XX:ActiveProcessorCount=$(( (cpu + 999) / 1000 ))")
+            (cd "$app" && exec java "${emulate[@]}" -XX:SharedArchiveFile=app.jsa @aot.args \
+                -cp "app.jar:lib/*" "$MAIN" --server.port="$PORT" --app.admission.enabled=false > "$log" 2>&1) &
+        else
+            fake_cgroup "$WORK/cgroup-$profile" "$memory" "$cpu" "$cpu_request"
+            local request=""
+            [ "$memory_request" -gt 0 ] && request=$(( memory_request * 1048576 ))
+            (cd "$app" && CGROUP_ROOT="$WORK/cgroup-$profile" MEMORY_REQUEST="$request" exec ./jvm-launcher.sh \
+                -XX:SharedArchiveFile=app.jsa @aot.args -cp "app.jar:lib/*" "$MAIN" --server.port="$PORT" \
+                --app.admission.enabled=false > "$log" 2>&1) &
+        fi
+        PID=$!
+    fi
+}
+
+stop_app() {
+    if [ "$MODE" = "docker" ]; then
+        docker logs "$CONTAINER" > "$WORK/last.log" 2>&1 || true
+        docker stop -t 5 "$CONTAINER" > /dev/null 2>&1 || true
+    else
+        kill "$PID" 2>/dev/null || true
+        wait "$PID" 2>/dev/null || true
+    fi
+}
+
+alive() {
+    if [ "$MODE" = "docker" ]; then
+        [ "$(docker inspect -f '{{.State.Running}}' "$CONTAINER" 2>/dev/null)" = "true" ]
+    else
+        kill -0 "$PID" 2>/dev/null
+    fi
+}
+
+# Current and peak resident memory in MiB: the container's cgroup, or the process in local mode
+rss_mb() {
+    if [ "$MODE" = "docker" ]; then
+        docker exec "$CONTAINER" sh -c 'cat /sys/fs/cgroup/memory.current 2>/dev/null || cat /sys/fs/cgroup/memory/memory.usage_in_bytes' \
+            | awk '{printf "%d\n", $1 / 1048576}'
+    else
+        awk '/^VmRSS:/ {printf "%d\n", $2 / 1024}' "/proc/$PID/status"
+    fi
+}
+
+peak_rss_mb() {
+    if [ "$MODE" = "docker" ]; then
+        docker exec "$CONTAINER" sh -c 'cat /sys/fs/cgroup/memory.peak 2>/dev/null || cat /sys/fs/cgroup/memory/memory.max_usage_in_bytes' \
+            | awk '{printf "%d\n", $1 / 1048576}'
+    else
+        awk '/^VmHWM:/ {printf "%d\n", $2 / 1024}' "/proc/$PID/status"
+    fi
+}
+
+# "count sum_seconds max_seconds" of GC pauses, over every collector and cause
+gc_pauses() {
+    curl -s "$BASE/actuator/prometheus" | awk '
+        /^jvm_gc_pause_seconds_count/ {c += $NF}
+        /^jvm_gc_pause_seconds_sum/   {s += $NF}
+        /^jvm_gc_pause_seconds_max/   {if ($NF > m) m = $NF}
+        END {printf "%d %.4f %.4f\n", c, s, m}'
+}
+
+json_field() {
+    grep -o "\"$1\":[0-9]*" | head -1 | cut -d: -f2
+}
+
+run() {
+    local profile=$1 variant=$2 memory=$3 cpu=$4 memory_request=$5 cpu_request=$6
+    local outcome=ok heap="-" peak="-" idle="-" throughput=0 p99="-" gc_count=0 gc_total=0 gc_max=0
+
+    start_app "$@"
+    local deadline=$(( $(date +%s) + 120 ))
+    until curl -sf -o /dev/null "$BASE/health"; do
+        if ! alive || [ "$(date +%s)" -gt "$deadline" ]; then
+            outcome=failed-to-start
+            break
+        fi
+        sleep 0.2
+    done
+
+    if [ "$outcome" = "ok" ]; then
+        heap=$(curl -s "$BASE/resources" | json_field maxMemoryMB)
+        local live=$(( (memory > 0 ? memory : 256) * LIVE_PERCENT / 100 ))
+        curl -s -o /dev/null "$BASE/allocate-memory?megabytes=$live"
+        for _ in $(seq "$WARMUP"); do echo "url = \"$BASE/resources?history=60\""; echo 'output = "/dev/null"'; done > "$WORK/warmup"
+        curl -s --no-progress-meter --parallel --parallel-max "$CONCURRENCY" -K "$WORK/warmup" > /dev/null || true
+
+        read -r c0 s0 _ <<< "$(gc_pauses)"
+        for _ in $(seq "$REQUESTS"); do echo "url = \"$BASE/resources?history=60\""; echo 'output = "/dev/null"'; done > "$WORK/urls"
+        local start end
+        start=$(date +%s%N)
+        curl -s --no-progress-meter --parallel --parallel-immediate --parallel-max "$CONCURRENCY" --max-time 30 \
+            -w "%{http_code} %{time_total}\n" -K "$WORK/urls" > "$WORK/times" || true
+        end=$(date +%s%N)
+        local ok
+        ok=$(awk '$1 == 200' "$WORK/times" | wc -l)
+        throughput=$(( ok * 1000000000 / (end - start) ))
+        p99=$(awk '$1 == 200 {print $2}' "$WORK/times" | sort -n | awk 'NF {v[NR]=$1} END {i=int(NR*0.99+0.999); if (i<1) i=1; if (NR) printf "%.0f", v[i]*1000; else print "-"}')
+        read -r c1 s1 gc_max <<< "$(gc_pauses)"
+        gc_count=$(( c1 - c0 ))
+        gc_total=$(awk -v a="$s0" -v b="$s1" 'BEGIN {printf "%.0f", (b - a) * 1000}')
+        gc_max=$(awk -v m="$gc_max" 'BEGIN {printf "%.0f", m * 1000}')
+        [ "$ok" -lt "$REQUESTS" ] && outcome="$(( REQUESTS - ok )) failed requests"
+
+        if alive; then
+            peak=$(peak_rss_mb)
+            curl -s -o /dev/null "$BASE/free-memory"
+            sleep "$IDLE_S"
+            alive && idle=$(rss_mb)
+        fi
+        alive || outcome="exited (OOM?)"
+    fi
+    stop_app
+
+    local headroom="-"
+    [ "$memory" -gt 0 ] && [ "$peak" != "-" ] && headroom=$(( memory - peak ))
+    printf "%-11s %-9s %6s %6s %9s %8s %6s %8s %7s %9s %7s %6s  %s\n" "$profile" "$variant" "${memory:-0}" "$heap" \
+        "$peak" "$headroom" "$idle" "$gc_count" "$gc_max" "$gc_total" "$throughput" "$p99" "$outcome"
+    echo "{\"profile\":\"$profile\",\"variant\":\"$variant\",\"memoryLimitMb\":$memory,\"cpuLimitMillis\":$cpu,\"maxHeapMb\":\"$heap\",\"peakRssMb\":\"$peak\",\"headroomMb\":\"$headroom\",\"idleRssMb\":\"$idle\",\"gcPauses\":$gc_count,\"gcPauseMaxMs\":$gc_max,\"gcPauseTotalMs\":$gc_total,\"throughputRps\":$throughput,\"p99Ms\":\"$p99\",\"outcome\":\"$outcome\"}" \
+        >> "$WORK/results.jsonl"
+}
+
+echo "=========================================="
+echo "JVM profile benchmark ($MODE): ${LIVE_PERCENT}% of the limit live, $REQUESTS requests x $CONCURRENCY"
+echo "=========================================="
+
+if [ "$MODE" = "local" ]; then
+    prepare_local
+    cp jvm-launcher.sh "$WORK/app/"
+fi
+
+printf "%-11s %-9s %6s %6s %9s %8s %6s %8s %7s %9s %7s %6s  %s\n" profile variant limit heap "peak rss" headroom idle \
+    "gc count" "gc max" "gc total" "req/s" p99 outcome
+echo "$PROFILES" | while IFS='|' read -r name memory cpu memory_request cpu_request; do
+    [ -z "$name" ] && continue
+    if [ -n "$SELECTED" ] && ! echo " $SELECTED " | grep -q " $name "; then
+        continue
+    fi
+    for variant in defaults launcher; do
+        run "$name" "$variant" "$memory" "$cpu" "$memory_request" "$cpu_request"
+    done
+done
+echo "(MiB and ms; headroom = limit - peak rss; idle = rss ${IDLE_S}s after the live data is freed)"
+
+mkdir -p "$RESULT_DIR"
+{ echo "["; paste -sd, "$WORK/results.jsonl"; echo "]"; } > "$RESULT_FILE"
+echo "Results written to $RESULT_FILE"
@@ -0,0 +1,326 @@
+#!/bin/sh
+
+# Container-aware JVM launcher, the ENTRYPOINT of every service image. It reads the cgroup limits
+# the container was started with, works out the pod's QoS class, picks JVM memory, GC, compiler
+# and processor settings for it, logs what it chose and why, and then execs java with those
+# options in front of its own arguments:
+#
+#   ENTRYPOINT ["/app/jvm-launcher.sh", "-XX:SharedArchiveFile=app.jsa", "@aot.args", "-cp", "app.jar:lib/*", "<main>"]
+#
+# Inputs (cgroup v2, or v1 as a fallback; CGROUP_ROOT points it at a fake tree):
+#   memory limit      memory.max / memory.limit_in_bytes
+#   CPU limit         cpu.max / cpu.cfs_quota_us + cpu.cfs_period_us
+#   CPU request       cpu.weight / cpu.shares (the kubelet derives both from requests.cpu)
+#   memory request    MEMORY_REQUEST (bytes), from the downward API; not visible in the cgroup
+#
+# Overrides (environment):
+#   JVM_LAUNCHER=off          exec java with the JVM's own defaults, nothing added
+#   JVM_PROFILE               guaranteed | burstable | besteffort instead of the detected class
+#   JVM_GC                    serial | parallel | g1 | zgc
+#   JVM_HEAP_PERCENT          max heap as a share of the memory budget
+#   JVM_MAX_HEAP, JVM_MIN_HEAP, JVM_METASPACE, JVM_CODE_CACHE, JVM_DIRECT_MEMORY   sizes (256m, 1g, 512Mi)
+#   JVM_ACTIVE_PROCESSORS, JVM_COMPILER_THREADS
+#   JVM_MEMORY_BUDGET         budget when there is no memory limit (default 256m for besteffort,
+#                             a quarter of the node otherwise)
+#   JVM_EXIT_ON_OOM=true      add -XX:+ExitOnOutOfMemoryError
+# An option already present in JAVA_TOOL_OPTIONS or JDK_JAVA_OPTIONS is left to it; the launcher
+# does not add its own value for the same setting.
+
+set -eu
+
+log() {
+    echo "jvm-launcher: $*" >&2
+}
+
+if [ "${JVM_LAUNCHER:-on}" = "off" ]; then
+    log "disabled (JVM_LAUNCHER=off), using JVM defaults"
+    exec java "$@"
+fi
+
+CGROUP_ROOT=${CGROUP_ROOT:-/sys/fs/cgroup}
+
+# Size in MiB from bytes or a suffixed value (512Mi, 300m, 1G, 1g); empty when unparseable
+to_mib() {
+    # Digits first, then the unit; anything else (1.5Gi, 512Mb, -1) never reaches $(( )), where it
+    # would stop the script under set -e. Leading zeros are dropped so 0800m is not read as octal
+    number=${1%%[!0-9]*}
+    unit=${1#"$number"}
+    number=${number#"${number%%[!0]*}"}
+    case "$1" in
+        [0-9]*) number=${number:-0} ;;
+        *) echo ""; return ;;
+    esac
+    case "$unit" in
+        '') echo $(( number / 1048576 )) ;;
+        [Kk]i | [Kk]) echo $(( number / 1024 )) ;;
+        [Mm]i | [Mm]) echo "$number" ;;
+        [Gg]i | [Gg]) echo $(( number * 1024 )) ;;
+        *) echo "" ;;
+    esac
+}
+
+# Size override from the environment in MiB, or the fallback when unset or unparseable
+env_mib() {
+    eval "value=\${$1:-}"
+    value=$(to_mib "$value")
+    echo "${value:-$2}"
+}
+
+read_first() {
+    [ -r "$1" ] && head -n 1 "$1" 2>/dev/null || true
+}
+
+# True when JAVA_TOOL_OPTIONS or JDK_JAVA_OPTIONS already sets one of the given options
+user_set() {
+    for option in "$@"; do
+        case " ${JAVA_TOOL_OPTIONS:-} ${JDK_JAVA_OPTIONS:-} " in
+            *" $option"*) return 0 ;;
+        esac
+    done
+    return 1
+}
+
+# --- Limits --------------------------------------------------------------------------------------
+
+memory_limit=0      # MiB, 0 = none
+cpu_limit=0         # millicores, 0 = none
+cpu_request=0       # millicores, 0 = unknown
+
+if [ -r "$CGROUP_ROOT/cgroup.controllers" ]; then
+    cgroup=v2
+    value=$(read_first "$CGROUP_ROOT/memory.max")
+    [ -n "$value" ] && [ "$value" != "max" ] && memory_limit=$(( value / 1048576 ))
+    if [ -r "$CGROUP_ROOT/cpu.max" ] && read -r quota period < "$CGROUP_ROOT/cpu.max" && [ "$quota" != "max" ]; then
+        cpu_limit=$(( quota * 1000 / period ))
+    fi
+    # The kubelet maps shares (1024 per CPU, minimum 2) onto weight 1-10000; this inverts that mapping
+    value=$(read_first "$CGROUP_ROOT/cpu.weight")
+    [ -n "$value" ] && cpu_request=$(( (2 + (value - 1) * 262142 / 9999) * 1000 / 1024 ))
+elif [ -d "$CGROUP_ROOT/memory" ] || [ -d "$CGROUP_ROOT/cpu" ]; then
+    cgroup=v1
+    cpu_dir="$CGROUP_ROOT/cpu"
+    [ -d "$cpu_dir" ] || cpu_dir="$CGROUP_ROOT/cpu,cpuacct"
+    value=$(read_first "$CGROUP_ROOT/memory/memory.limit_in_bytes")
+    # v1 reports "no limit" as a page-aligned Long.MAX_VALUE
+    [ -n "$value" ] && [ ${#value} -lt 19 ] && memory_limit=$(( value / 1048576 ))
+    quota=$(read_first "$cpu_dir/cpu.cfs_quota_us")
+    period=$(read_first "$cpu_dir/cpu.cfs_period_us")
+    [ -n "$quota" ] && [ "$quota" -gt 0 ] && cpu_limit=$(( quota * 1000 / ${period:-100000} ))
+    value=$(read_first "$cpu_dir/cpu.shares")
+    [ -n "$value" ] && cpu_request=$(( value * 1000 / 1024 ))
+else
+    # Not in a container (or no cgroup filesystem): nothing to size against
+    log "no cgroup filesystem at $CGROUP_ROOT, using JVM defaults"
+    exec java "$@"
+fi
+
+memory_request=$(to_mib "${MEMORY_REQUEST:-}")
+memory_request=${memory_request:-0}
+node_cpus=$(nproc 2>/dev/null || echo 1)
+node_memory=$(( $(awk '/^MemTotal:/ {print $2}' /proc/meminfo 2>/dev/null || echo 1048576) / 1024 ))
+
+describe_millicores() {
+    [ "$1" -gt 0 ] && echo "${1}m" || echo "none"
+}
+describe_mib() {
+    [ "$1" -gt 0 ] && echo "${1}Mi" || echo "none"
+}
+log "cgroup $cgroup: memory limit $(describe_mib $memory_limit), memory request $(describe_mib $memory_request)," \
+    "cpu limit $(describe_millicores $cpu_limit), cpu request $(describe_millicores $cpu_request)," \
+    "node ${node_cpus} cpus ${node_memory}Mi"
+
+# --- QoS class -----------------------------------------------------------------------------------
+
+# BestEffort pods get the minimum 2 shares (about 1m); Guaranteed pods have request = limit, which
+# survives the shares/weight round trip to within about 20%
+if [ -n "${JVM_PROFILE:-}" ]; then
+    profile=$JVM_PROFILE
+    reason="JVM_PROFILE"
+elif [ "$memory_limit" -eq 0 ] && [ "$cpu_limit" -eq 0 ] && [ "$cpu_request" -le 2 ]; then
+    profile=besteffort
+    reason="no limits, minimum cpu shares"
+elif [ "$memory_limit" -gt 0 ] && [ "$cpu_limit" -gt 0 ] && [ $(( cpu_request * 5 )) -ge $(( cpu_limit * 4 )) ] \
+        && { [ "$memory_request" -eq 0 ] || [ "$memory_request" -ge "$memory_limit" ]; }; then
+    profile=guaranteed
+    reason="limits set, requests equal to limits"
+else
+    profile=burstable
+    reason="requests below limits"
+fi
+case "$profile" in
+    guaranteed | burstable | besteffort) ;;
+    *) log "unknown profile '$profile', using burstable"; profile=burstable ;;
+esac
+
+# --- Decisions -----------------------------------------------------------------------------------
+
+# Memory budget: the limit, or a conservative figure when the pod may use the whole node
+if [ "$memory_limit" -gt 0 ]; then
+    budget=$memory_limit
+    budget_from="memory limit"
+elif [ -n "${JVM_MEMORY_BUDGET:-}" ]; then
+    budget=$(env_mib JVM_MEMORY_BUDGET 256)
+    budget_from="JVM_MEMORY_BUDGET"
+elif [ "$profile" = besteffort ]; then
+    budget=256
+    budget_from="besteffort default, first to be evicted"
+else
+    budget=$(( node_memory / 4 ))
+    budget_from="quarter of the node"
+fi
+
+# Processors: the CPU limit rounded up, else the request (the JVM ignores shares since JDK 19 and
+# would size GC and compiler threads for the whole node)
+if [ -n "${JVM_ACTIVE_PROCESSORS:-}" ]; then
+    cpus=$JVM_ACTIVE_PROCESSORS
+elif [ "$profile" = besteffort ]; then
+    cpus=1
+elif [ "$cpu_limit" -gt 0 ]; then
+    cpus=$(( (cpu_limit + 999) / 1000 ))
+elif [ "$cpu_request" -gt 0 ]; then
+    cpus=$(( (cpu_request + 999) / 1000 ))
+else
+    cpus=$node_cpus
+fi
+[ "$cpus" -gt "$node_cpus" ] && cpus=$node_cpus
+[ "$cpus" -lt 1 ] && cpus=1
+
+# Non-heap caps. Spring Boot services here load about 70Mi of metaspace and 20-40Mi of compiled code
+if [ "$budget" -ge 1024 ]; then
+    metaspace=192; code_cache=128
+elif [ "$budget" -ge 384 ]; then
+    metaspace=128; code_cache=64
+else
+    metaspace=96; code_cache=48
+fi
+[ "$profile" = besteffort ] && code_cache=32
+direct=$(( budget / 16 ))
+[ "$direct" -lt 16 ] && direct=16
+[ "$direct" -gt 256 ] && direct=256
+
+# Heap share of the budget: what is left after metaspace, code cache, thread stacks and GC
+# structures is a larger fraction of a large container than of a small one
+if [ -n "${JVM_HEAP_PERCENT:-}" ]; then
+    heap_percent=$JVM_HEAP_PERCENT
+elif [ "$budget" -le 256 ]; then
+    heap_percent=50
+elif [ "$budget" -le 512 ]; then
+    heap_percent=55
+elif [ "$budget" -le 2048 ]; then
+    heap_percent=65
+else
+    heap_percent=75
+fi
+max_heap=$(env_mib JVM_MAX_HEAP $(( budget * heap_percent / 100 )))
+[ "$max_heap" -lt 32 ] && max_heap=32
+
+# GC: Serial below 2 CPUs or for small heaps (no concurrent threads to feed, least footprint),
+# generational ZGC for large heaps on 4+ guaranteed CPUs, G1 in between
+if [ -n "${JVM_GC:-}" ]; then
+    gc=$JVM_GC
+    gc_reason="JVM_GC"
+elif [ "$cpus" -lt 2 ] || [ "$max_heap" -lt 1024 ]; then
+    gc=serial
+    gc_reason="$cpus cpu(s), ${max_heap}m heap"
+elif [ "$profile" = guaranteed ] && [ "$cpus" -ge 4 ] && [ "$max_heap" -ge 2048 ]; then
+    gc=zgc
+    gc_reason="$cpus guaranteed cpus, ${max_heap}m heap"
+else
+    gc=g1
+    gc_reason="$cpus cpus, ${max_heap}m heap"
+fi
+
+# Initial heap: all of it for a guaranteed pod on a region-based collector (memory is reserved
+# anyway, no resizing). Serial sizes its generations from -Xms, and a pinned small heap leaves the
+# old generation a fixed two thirds, so it starts at a quarter there. Burstable starts from its
+# request and gives memory back, so the pod drifts back towards the request and is less likely to
+# be evicted under node pressure
+case "$profile" in
+    guaranteed)
+        if [ "$gc" = g1 ] || [ "$gc" = zgc ]; then
+            min_heap=$max_heap
+        else
+            min_heap=$(( max_heap / 4 ))
+        fi
+        ;;
+    burstable)
+        if [ "$memory_request" -gt 0 ]; then
+            min_heap=$(( memory_request * heap_percent / 100 ))
+        else
+            min_heap=$(( max_heap / 4 ))
+        fi
+        ;;
+    besteffort) min_heap=16 ;;
+esac
+min_heap=$(env_mib JVM_MIN_HEAP "$min_heap")
+[ "$min_heap" -gt "$max_heap" ] && min_heap=$max_heap
+
+# --- Options -------------------------------------------------------------------------------------
+
+options=""
+add() {
+    options="$options $*"
+}
+
+# The initial heap is derived from the launcher's own maximum, so it is only added with it: next to
+# a user -Xmx below it the JVM would refuse to start ("Initial heap size set to a larger value than
+# the maximum heap size")
+heap="${min_heap}-${max_heap}m"
+if user_set -Xmx -XX:MaxHeapSize -XX:MaxRAMPercentage -XX:MaxRAM; then
+    heap="from JAVA_TOOL_OPTIONS/JDK_JAVA_OPTIONS"
+else
+    add "-Xmx${max_heap}m"
+    user_set -Xms -XX:InitialHeapSize -XX:InitialRAMPercentage || add "-Xms${min_heap}m"
+fi
+user_set -XX:MaxMetaspaceSize || add "-XX:MaxMetaspaceSize=$(env_mib JVM_METASPACE $metaspace)m"
+user_set -XX:ReservedCodeCacheSize || add "-XX:ReservedCodeCacheSize=$(env_mib JVM_CODE_CACHE $code_cache)m"
+user_set -XX:MaxDirectMemorySize || add "-XX:MaxDirectMemorySize=$(env_mib JVM_DIRECT_MEMORY $direct)m"
+user_set -XX:ActiveProcessorCount || add "-XX:ActiveProcessorCount=$cpus"
+
+if ! user_set -XX:+UseSerialGC -XX:+UseParallelGC -XX:+UseG1GC -XX:+UseZGC -XX:+UseShenandoahGC; then
+    case "$gc" in
+        serial)
+            add "-XX:+UseSerialGC"
+            # Serial only resizes at full collections; hand free memory back at the first one
+            # rather than in 10%/40% steps over several
+            [ "$profile" = guaranteed ] || add "-XX:MinHeapFreeRatio=10 -XX:MaxHeapFreeRatio=30 -XX:-ShrinkHeapInSteps"
+            ;;
+        parallel) add "-XX:+UseParallelGC" ;;
+        g1)
+            add "-XX:+UseG1GC"
+            # Uncommit unused heap after 30s of idleness
+            [ "$profile" = guaranteed ] || add "-XX:G1PeriodicGCInterval=30000"
+            ;;
+        # ZGC runs without compressed oops, so JDK 21 cannot map the image's AppCDS archive
+        zgc) add "-XX:+UseZGC -XX:+ZGenerational" ;;
+        *) log "unknown JVM_GC '$gc', leaving the JVM's choice"; gc="default" ;;
+    esac
+fi
+
+# JIT: C1 only for besteffort (less CPU and code cache, lower peak speed); otherwise tiered with
+# two compiler threads (the minimum) when there are at most two CPUs
+if [ -n "${JVM_COMPILER_THREADS:-}" ]; then
+    user_set -XX:CICompilerCount || add "-XX:CICompilerCount=$JVM_COMPILER_THREADS"
+elif [ "$profile" = besteffort ]; then
+    user_set -XX:TieredStopAtLevel || add "-XX:TieredStopAtLevel=1"
+    user_set -XX:CICompilerCount || add "-XX:CICompilerCount=1"
+elif [ "$cpus" -le 2 ]; then
+    user_set -XX:CICompilerCount || add "-XX:CICompilerCount=2"
+fi
+
+# Opt-in: exit on heap exhaustion so the kubelet restarts the pod. Not the default, because
+# ResourceLimitsApp catches OutOfMemoryError on purpose to demonstrate it
+if [ "${JVM_EXIT_ON_OOM:-false}" = "true" ]; then
+    user_set -XX:+ExitOnOutOfMemoryError -XX:+CrashOnOutOfMemoryError || add "-XX:+ExitOnOutOfMemoryError"
+fi
+
+log "profile $profile ($reason); budget ${budget}Mi ($budget_from); heap $heap" \
+    "(${heap_percent}%); gc $gc ($gc_reason); $cpus processor(s)"
+if [ -n "${JAVA_TOOL_OPTIONS:-}${JDK_JAVA_OPTIONS:-}" ]; then
+    log "kept from JAVA_TOOL_OPTIONS/JDK_JAVA_OPTIONS: ${JAVA_TOOL_OPTIONS:-} ${JDK_JAVA_OPTIONS:-}"
+fi
+log "java$options"
+
+# Word splitting of $options is intended: every entry is a single option without spaces
+# shellcheck disable=SC2086
+exec java $options "$@"
@@ -0,0 +1,86 @@
+#!/bin/bash
+
+# Shutdown test for the drain coordinator. Starts a service jar, keeps CONCURRENCY clients sending
+# requests to PATH, sends SIGTERM after WARMUP seconds, and classifies every request by when it
+# started relative to the SIGTERM:
+#   before SIGTERM          must all succeed (in flight or already done)
+#   propagation window      must all succeed (the pod still serves while endpoint removal spreads)
+#   after the window        connection refused is expected; in a cluster these go to other pods
+# A failure in either of the first two buckets is a request a rolling update would turn into a 502.
+#
+# Usage: ./loadtest-shutdown.sh <service-jar> [path] [concurrency]
+#   WARMUP=5 PORT=18090 PROPAGATION_DELAY=5s   extra service arguments go in SERVICE_ARGS
+
+JAR=$1
+REQUEST_PATH=${2:-/}
+CONCURRENCY=${3:-8}
+WARMUP=${WARMUP:-5}
+PORT=${PORT:-18090}
+PROPAGATION_DELAY=${PROPAGATION_DELAY:-5s}
+
+if [ -z "$JAR" ] || [ ! -f "$JAR" ]; then
+    echo "Usage: $0 <service-jar> [path] [concurrency]" >&2
+    exit 1
+fi
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+URL="http://localhost:$PORT$REQUEST_PATH"
+
+echo "=========================================="
+echo "Shutdown drain test: $(basename "$JAR") $REQUEST_PATH"
+echo "=========================================="
+
+java -jar "$JAR" --server.port="$PORT" --app.shutdown.propagation-delay="$PROPAGATION_DELAY" \
+    --app.logs.dir="$WORK/logs" $SERVICE_ARGS > "$WORK/service.log" 2>&1 &
+PID=$!
+until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "Service exited during startup; see its log:" >&2
+        tail -20 "$WORK/service.log" >&2
+        exit 1
+    fi
+    sleep 0.2
+done
+
+# Each client records "<start ms> <status>"; curl reports 000 for refused or reset connections
+client() {
+    while [ ! -f "$WORK/stop" ]; do
+        local start code
+        start=$(date +%s%3N)
+        code=$(curl -s -o /dev/null --max-time 60 -w "%{http_code}" "$URL")
+        echo "$start $code" >> "$WORK/client-$1"
+        [ "$code" = "000" ] && sleep 0.05
+    done
+}
+for i in $(seq "$CONCURRENCY"); do
+    client "$i" &
+done
+
+sleep "$WARMUP"
+SIGTERM_MS=$(date +%s%3N)
+kill -TERM "$PID"
+wait "$PID"
+EXIT_MS=$(date +%s%3N)
+sleep 1
+touch "$WORK/stop"
+wait
+
+DELAY_MS=$(( ${PROPAGATION_DELAY%s} * 1000 ))
+cat "$WORK"/client-* | awk -v t="$SIGTERM_MS" -v d="$DELAY_MS" '
+    { bucket = $1 < t ? "before" : ($1 < t + d ? "window" : "after") }
+    { total[bucket]++; if ($2 == 200) ok[bucket]++ }
+    END {
+        printf "%-24s %8s %8s %8s\n", "started", "total", "ok", "failed"
+        split("before window after", order, " ")
+        label["before"] = "before SIGTERM"; label["window"] = "propagation window"; label["after"] = "after window"
+        for (i = 1; i <= 3; i++) {
+            b = order[i]
+            printf "%-24s %8d %8d %8d\n", label[b], total[b], ok[b], total[b] - ok[b]
+        }
+        failed = (total["before"] - ok["before"]) + (total["window"] - ok["window"])
+        printf "\nFailed requests a rolling update would see: %d\n", failed
+    }'
+echo "Shutdown took $(( EXIT_MS - SIGTERM_MS ))ms"
+echo ""
+grep "Shutdown:" "$WORK/service.log" | sed 's/^.*Shutdown:/Shutdown:/'
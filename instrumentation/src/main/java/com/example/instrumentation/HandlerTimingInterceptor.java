@@ -0,0 +1,79 @@
+package com.example.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every @RequestMapping method into http.server.handler{controller,method,status}, with a
+ * percentile histogram and SLO buckets. Timers are built once per handler method and status class
+ * and then looked up by Method, so a request only pays for a map lookup and Timer.record.
+ * Async handlers (SseEmitter, DeferredResult) are timed until the response completes.
+ */
+public class HandlerTimingInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRIC_NAME = "http.server.handler";
+
+    private static final String START_ATTRIBUTE = HandlerTimingInterceptor.class.getName() + ".start";
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry registry;
+    private final InstrumentationProperties properties;
+    private final Duration[] slo;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public HandlerTimingInterceptor(MeterRegistry registry, InstrumentationProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+        this.slo = properties.slo().toArray(Duration[]::new);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch runs the interceptors again; keep the start of the original request
+        if (handler instanceof HandlerMethod && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        // The status is still 200 when an exception escapes the handler
+        int statusClass = ex != null ? 4 : Math.min(4, Math.max(0, response.getStatus() / 100 - 1));
+        timer(handlerMethod, statusClass).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(HandlerMethod handlerMethod, int statusClass) {
+        Timer[] byStatus = timers.computeIfAbsent(handlerMethod.getMethod(), method -> new Timer[STATUS_CLASSES.length]);
+        Timer timer = byStatus[statusClass];
+        if (timer == null) {
+            // Racing threads get the same meter back from the registry
+            timer = Timer.builder(METRIC_NAME)
+                    .description("Time spent in a controller method, including argument binding and response writing")
+                    .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                    .tag("method", handlerMethod.getMethod().getName())
+                    .tag("status", STATUS_CLASSES[statusClass])
+                    .publishPercentileHistogram(properties.percentileHistogram())
+                    .serviceLevelObjectives(slo)
+                    .minimumExpectedValue(properties.minimumExpected())
+                    .maximumExpectedValue(properties.maximumExpected())
+                    .register(registry);
+            byStatus[statusClass] = timer;
+        }
+        return timer;
+    }
+}
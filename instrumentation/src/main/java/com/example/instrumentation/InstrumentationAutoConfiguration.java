@@ -0,0 +1,42 @@
+package com.example.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Picked up by every service that has this module on its classpath. JVM, GC, thread, executor and
+ * Tomcat metrics, and /actuator/prometheus, come from Spring Boot itself once the Prometheus
+ * registry is present; this adds the per-controller-method timers on top.
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(WebMvcConfigurer.class)
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(InstrumentationProperties.class)
+@ConditionalOnProperty(prefix = "app.instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InstrumentationAutoConfiguration {
+
+    @Bean
+    public HandlerTimingInterceptor handlerTimingInterceptor(MeterRegistry registry, InstrumentationProperties properties) {
+        return new HandlerTimingInterceptor(registry, properties);
+    }
+
+    @Bean
+    public WebMvcConfigurer handlerTimingConfigurer(HandlerTimingInterceptor handlerTimingInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(handlerTimingInterceptor);
+            }
+        };
+    }
+}
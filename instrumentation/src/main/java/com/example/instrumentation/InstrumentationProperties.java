@@ -0,0 +1,17 @@
+package com.example.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Settings for the per-handler timers (app.instrumentation.*)
+@ConfigurationProperties(prefix = "app.instrumentation")
+public record InstrumentationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean percentileHistogram,
+        @DefaultValue({"5ms", "10ms", "25ms", "50ms", "100ms", "250ms", "500ms", "1s"}) List<Duration> slo,
+        @DefaultValue("1ms") Duration minimumExpected,
+        @DefaultValue("10s") Duration maximumExpected) {
+}
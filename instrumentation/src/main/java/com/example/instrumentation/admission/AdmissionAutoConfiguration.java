@@ -0,0 +1,44 @@
+package com.example.instrumentation.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers ConcurrencyLimitFilter in every servlet service that has this module on its classpath.
+ * It runs right after Spring Boot's observation filter, so rejected requests still show up in
+ * http.server.requests with status 503.
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionAutoConfiguration {
+
+    @Bean
+    public ConcurrencyLimit concurrencyLimit(AdmissionProperties properties) {
+        return switch (properties.algorithm()) {
+            case GRADIENT -> new GradientLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit());
+            case AIMD -> new AimdLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+                    properties.aimdLatencyThreshold().toNanos(), properties.aimdBackoffRatio());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimit concurrencyLimit,
+                                                                                 AdmissionProperties properties,
+                                                                                 MeterRegistry registry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(concurrencyLimit, properties, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.instrumentation.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Settings for ConcurrencyLimitFilter (app.admission.*); critical and sheddable are path patterns
+@ConfigurationProperties(prefix = "app.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("GRADIENT") Algorithm algorithm,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("0.5") double sheddableShare,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("500ms") Duration aimdLatencyThreshold,
+        @DefaultValue("0.9") double aimdBackoffRatio,
+        @DefaultValue({"/actuator/health/**", "/actuator/prometheus", "/actuator/profile", "/health"}) List<String> critical,
+        List<String> sheddable) {
+
+    public AdmissionProperties {
+        sheddable = sheddable == null ? List.of() : List.copyOf(sheddable);
+    }
+
+    public enum Algorithm {
+        // Latency-gradient limit: shrinks when short-term latency rises above the long-term baseline
+        GRADIENT,
+        // Additive increase, multiplicative decrease on requests slower than aimd-latency-threshold
+        AIMD
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.instrumentation.admission;
+
+/**
+ * Additive increase, multiplicative decrease: a request slower than the latency threshold
+ * multiplies the limit by the backoff ratio, and any other request adds one, as long as the limit
+ * is actually being used.
+ */
+public class AimdLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+
+    private volatile double limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long thresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = thresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight) {
+        if (latencyNanos > thresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // Only grow when at least half the limit is in use; an idle service says nothing about capacity
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
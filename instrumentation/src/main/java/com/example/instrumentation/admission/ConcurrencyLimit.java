@@ -0,0 +1,12 @@
+package com.example.instrumentation.admission;
+
+/**
+ * An adaptive limit on concurrent requests. The filter reads getLimit() before admitting a request
+ * and reports each admitted request's latency, with the in-flight count it was admitted at.
+ */
+public interface ConcurrencyLimit {
+
+    int getLimit();
+
+    void onSample(long latencyNanos, int inFlight);
+}
@@ -0,0 +1,191 @@
+package com.example.instrumentation.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control in front of every request. CRITICAL paths pass straight through; everything
+ * else takes a slot while it runs, and is turned away with 503 and Retry-After once the in-flight
+ * count reaches the adaptive limit (SHEDDABLE paths already at sheddable-share of it). Rejecting up
+ * front keeps the admitted requests' latency stable instead of letting every request slow down.
+ *
+ * Only NORMAL requests feed their latency to the limit. Sheddable endpoints are the deliberately
+ * slow or expensive ones (a 45s sleep, a 5s CPU burn), whose duration says nothing about queueing.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimit limit;
+    private final List<PathPattern> critical;
+    private final List<PathPattern> sheddable;
+    private final double sheddableShare;
+    private final String retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimit limit, AdmissionProperties properties, MeterRegistry registry) {
+        this.limit = limit;
+        this.critical = parse(properties.critical());
+        this.sheddable = parse(properties.sheddable());
+        this.sheddableShare = properties.sheddableShare();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.retryAfter().toSeconds()));
+
+        Gauge.builder("admission.limit", limit, ConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("admission.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding an admission slot")
+                .register(registry);
+        FunctionCounter.builder("admission.admitted", admitted, LongAdder::sum)
+                .description("Requests admitted under the concurrency limit (critical paths are not counted)")
+                .register(registry);
+        for (Priority priority : List.of(Priority.NORMAL, Priority.SHEDDABLE)) {
+            rejected.put(priority, Counter.builder("admission.rejected")
+                    .description("Requests rejected with 503 because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    Priority classify(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        if (matches(critical, path)) {
+            return Priority.CRITICAL;
+        }
+        return matches(sheddable, path) ? Priority.SHEDDABLE : Priority.NORMAL;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (priority == Priority.CRITICAL) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        int current = limit.getLimit();
+        int allowed = priority == Priority.SHEDDABLE ? Math.max(1, (int) (current * sheddableShare)) : current;
+        int admittedAt = inFlight.incrementAndGet();
+        if (admittedAt > allowed) {
+            inFlight.decrementAndGet();
+            reject(response, priority, current);
+            return;
+        }
+        admitted.increment();
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // StreamingResponseBody, SseEmitter, DeferredResult: hold the slot until the response completes
+                request.getAsyncContext().addListener(new ReleaseOnComplete(priority, start, admittedAt));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(priority, start, admittedAt);
+            }
+        }
+    }
+
+    private void release(Priority priority, long start, int admittedAt) {
+        inFlight.decrementAndGet();
+        if (priority == Priority.NORMAL) {
+            limit.onSample(System.nanoTime() - start, admittedAt);
+        }
+    }
+
+    private void reject(HttpServletResponse response, Priority priority, int current) throws IOException {
+        rejected.get(priority).increment();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Concurrency limit of "
+                + current + " reached\",\"priority\":\"" + priority.name().toLowerCase() + "\"}");
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream()
+                .filter(pattern -> !pattern.isBlank())
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final Priority priority;
+        private final long start;
+        private final int admittedAt;
+        private boolean released;
+
+        ReleaseOnComplete(Priority priority, long start, int admittedAt) {
+            this.priority = priority;
+            this.start = start;
+            this.admittedAt = admittedAt;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        // onTimeout and onError are followed by onComplete; the container calls the listener serially
+        private void releaseOnce() {
+            if (!released) {
+                released = true;
+                release(priority, start, admittedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.instrumentation.admission;
+
+/**
+ * Latency-gradient limit. It keeps a short-term and a long-term exponential average of request
+ * latency; their ratio (clamped to [0.5, 1]) scales the limit down as queueing pushes short-term
+ * latency above the baseline, and a sqrt(limit) headroom term lets it probe upwards when latency is
+ * flat. The new value is smoothed into the current one so a single slow request cannot collapse it.
+ */
+public class GradientLimit implements ConcurrencyLimit {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    // Short-term latency may reach this multiple of the baseline before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private volatile double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight) {
+        if (longLatency == 0) {
+            shortLatency = latencyNanos;
+            longLatency = latencyNanos;
+        }
+        shortLatency += (latencyNanos - shortLatency) / SHORT_WINDOW;
+        longLatency += (latencyNanos - longLatency) / LONG_WINDOW;
+
+        // Let the baseline follow latency down quickly, e.g. after a warm-up with a cold JIT
+        if (longLatency > shortLatency * 2) {
+            longLatency *= 0.95;
+        }
+
+        // An app-limited service says nothing about capacity
+        if (inFlight * 2 < limit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.instrumentation.admission;
+
+// How ConcurrencyLimitFilter treats a request, chosen by path (app.admission.critical / .sheddable)
+public enum Priority {
+    // Always admitted and not counted against the limit (probes, scrapes)
+    CRITICAL,
+    // Admitted while in-flight requests are below the limit
+    NORMAL,
+    // Admitted only below sheddable-share of the limit, so it is shed first and leaves room for NORMAL
+    SHEDDABLE
+}
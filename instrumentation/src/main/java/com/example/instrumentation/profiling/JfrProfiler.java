@@ -0,0 +1,150 @@
+package com.example.instrumentation.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs time-bounded Flight Recorder sessions: CPU samples, allocation samples, contended monitors and
+ * parks above lock-threshold, and GC. Everything else JFR can record stays off, so the cost is the
+ * sampler plus a throttled allocation sampler, typically well under 2% CPU.
+ *
+ * At most max-concurrent recordings run at once; further requests are refused rather than queued.
+ * When the application shuts down, running recordings end early and return what they have, so a
+ * long recording does not hold up the drain.
+ */
+public class JfrProfiler implements ApplicationListener<ContextClosedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfiler.class);
+
+    private final ProfilingProperties properties;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final CountDownLatch closing = new CountDownLatch(1);
+    private final Counter completed;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public JfrProfiler(ProfilingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.maxConcurrent());
+
+        Gauge.builder("profiling.active", active, AtomicInteger::get)
+                .description("Flight Recorder sessions started through /actuator/profile that are still running")
+                .register(registry);
+        completed = outcome(registry, "completed");
+        rejected = outcome(registry, "rejected");
+        failed = outcome(registry, "failed");
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("profiling.recordings")
+                .description("Profiling requests by outcome; rejected ones hit the concurrency limit")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    // The requested duration, or the default, capped at max-duration
+    public Duration effectiveDuration(Duration requested) {
+        Duration duration = requested == null || requested.isNegative() || requested.isZero()
+                ? properties.defaultDuration() : requested;
+        return duration.compareTo(properties.maxDuration()) > 0 ? properties.maxDuration() : duration;
+    }
+
+    // The .jfr file and how long it actually covers, which is shorter if shutdown cut it short
+    public record Profile(Path file, Duration duration) {
+    }
+
+    /**
+     * Records for the given duration on the calling thread and returns the .jfr file, which the caller
+     * must delete. Returns null without recording when max-concurrent recordings are already running.
+     */
+    public Profile record(Duration duration) throws IOException, InterruptedException {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return null;
+        }
+        active.incrementAndGet();
+        Path file = null;
+        try (Recording recording = newRecording()) {
+            file = Files.createTempFile("profile-", ".jfr");
+            // Written on stop, including when Flight Recorder's own shutdown hook stops it on JVM exit
+            recording.setDestination(file);
+            long start = System.nanoTime();
+            recording.start();
+            if (closing.await(duration.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.info("Profiling: recording {} cut short after {}ms by shutdown", recording.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            stop(recording);
+            completed.increment();
+            return new Profile(file, Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            failed.increment();
+            log.warn("Profiling: recording failed", e);
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    // Flight Recorder's shutdown hook may get there first; it holds the recorder lock while writing
+    private static void stop(Recording recording) {
+        try {
+            recording.stop();
+        } catch (IllegalStateException e) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                throw e;
+            }
+        }
+    }
+
+    private Recording newRecording() {
+        Recording recording = new Recording();
+        recording.setName("actuator-profile-" + sequence.incrementAndGet());
+        recording.setToDisk(true);
+        recording.setMaxSize(properties.maxSize().toBytes());
+        recording.enable("jdk.ExecutionSample").withPeriod(properties.cpuSampleInterval()).withStackTrace();
+        recording.enable("jdk.ObjectAllocationSample")
+                .with("throttle", properties.allocationSamplesPerSecond() + "/s")
+                .withStackTrace();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(properties.lockThreshold()).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(properties.lockThreshold()).withStackTrace();
+        recording.enable("jdk.GarbageCollection");
+        recording.enable("jdk.GCPhasePause");
+        recording.enable("jdk.GCHeapSummary");
+        recording.enable("jdk.GCConfiguration");
+        recording.enable("jdk.CPULoad").withPeriod(Duration.ofSeconds(1));
+        return recording;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        closing.countDown();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.instrumentation.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * /actuator/profile: records for ?duration (default-duration, capped at max-duration) and then
+ * returns the .jfr, or with ?format=collapsed|top a server-side summary of the ?event=cpu|alloc|lock
+ * stacks. The request blocks for the whole recording, like /actuator/heapdump does for its dump.
+ *
+ * 429 when max-concurrent recordings are already running, 503 when the JVM has no Flight Recorder.
+ */
+@WebEndpoint(id = "profile")
+public class ProfileEndpoint {
+
+    private final JfrProfiler profiler;
+    private final ProfilingProperties properties;
+
+    public ProfileEndpoint(JfrProfiler profiler, ProfilingProperties properties) {
+        this.profiler = profiler;
+        this.properties = properties;
+    }
+
+    @ReadOperation(produces = {MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE, MimeTypeUtils.TEXT_PLAIN_VALUE})
+    public WebEndpointResponse<Object> profile(@Nullable Duration duration, @Nullable ProfileFormat format,
+                                               @Nullable ProfileEvent event) throws IOException, InterruptedException {
+        if (!profiler.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        JfrProfiler.Profile profile = profiler.record(profiler.effectiveDuration(duration));
+        if (profile == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        Path file = profile.file();
+        if (format == null || format == ProfileFormat.JFR) {
+            return new WebEndpointResponse<>(new TemporaryFileResource(file), MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        }
+
+        ProfileEvent summarized = event == null ? ProfileEvent.CPU : event;
+        try {
+            StackCollapser stacks = StackCollapser.read(file, summarized);
+            String body = format == ProfileFormat.COLLAPSED ? stacks.collapsed()
+                    : stacks.top(properties.topFrames(), summarized.name().toLowerCase() + " profile over "
+                            + profile.duration().toMillis() + "ms");
+            return new WebEndpointResponse<>(body, MimeTypeUtils.TEXT_PLAIN);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Streamed through getInputStream (isFile is false) and deleted once the response is written;
+    // WebFlux reads through readableChannel, so that goes through the same stream
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return Channels.newChannel(getInputStream());
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.instrumentation.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+
+import java.util.Set;
+
+/**
+ * What a collapsed-stack summary is weighted by. Each maps to the JFR events the recording enables
+ * for it and to the weight of one such event.
+ */
+public enum ProfileEvent {
+
+    // Where threads were running Java code: one per execution sample
+    CPU("samples", Set.of("jdk.ExecutionSample")),
+    // Where memory was allocated: the sampled bytes each allocation sample stands for
+    ALLOC("bytes", Set.of("jdk.ObjectAllocationSample")),
+    // Where threads blocked on monitors or parked on locks longer than lock-threshold: nanoseconds
+    LOCK("ns blocked", Set.of("jdk.JavaMonitorEnter", "jdk.ThreadPark"));
+
+    private final String unit;
+    private final Set<String> eventTypes;
+
+    ProfileEvent(String unit, Set<String> eventTypes) {
+        this.unit = unit;
+        this.eventTypes = eventTypes;
+    }
+
+    String unit() {
+        return unit;
+    }
+
+    boolean matches(RecordedEvent event) {
+        return eventTypes.contains(event.getEventType().getName());
+    }
+
+    long weight(RecordedEvent event) {
+        return switch (this) {
+            case CPU -> 1;
+            case ALLOC -> event.getLong("weight");
+            case LOCK -> event.getDuration().toNanos();
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.instrumentation.profiling;
+
+// What /actuator/profile returns once the recording ends
+public enum ProfileFormat {
+
+    // The recording itself, for JDK Mission Control or `jfr print`
+    JFR,
+    // One line per distinct stack, root first: the input format of flamegraph.pl and speedscope
+    COLLAPSED,
+    // The hottest frames by self and total weight, as plain text
+    TOP
+}
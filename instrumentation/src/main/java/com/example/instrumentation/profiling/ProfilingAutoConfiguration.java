@@ -0,0 +1,33 @@
+package com.example.instrumentation.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Adds /actuator/profile to every service, servlet and reactive alike. Like any actuator endpoint
+ * it is only reachable once listed in management.endpoints.web.exposure.include, and is meant to be
+ * used through kubectl port-forward rather than through the gateway.
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnAvailableEndpoint(endpoint = ProfileEndpoint.class)
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingAutoConfiguration {
+
+    @Bean
+    public JfrProfiler jfrProfiler(ProfilingProperties properties, MeterRegistry registry) {
+        return new JfrProfiler(properties, registry);
+    }
+
+    @Bean
+    public ProfileEndpoint profileEndpoint(JfrProfiler jfrProfiler, ProfilingProperties properties) {
+        return new ProfileEndpoint(jfrProfiler, properties);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.instrumentation.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for /actuator/profile (app.profiling.*). Requested durations are capped at max-duration,
+ * and at most max-concurrent recordings run at once; the sampling settings bound the overhead of
+ * each one.
+ */
+@ConfigurationProperties(prefix = "app.profiling")
+public record ProfilingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30s") Duration defaultDuration,
+        @DefaultValue("120s") Duration maxDuration,
+        @DefaultValue("1") int maxConcurrent,
+        @DefaultValue("20ms") Duration cpuSampleInterval,
+        @DefaultValue("150") int allocationSamplesPerSecond,
+        @DefaultValue("10ms") Duration lockThreshold,
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("30") int topFrames) {
+
+    // Below 10ms the sampler itself starts to show up in the profile
+    static final Duration MIN_CPU_SAMPLE_INTERVAL = Duration.ofMillis(10);
+
+    public ProfilingProperties {
+        if (cpuSampleInterval.compareTo(MIN_CPU_SAMPLE_INTERVAL) < 0) {
+            throw new IllegalArgumentException("app.profiling.cpu-sample-interval must be at least 10ms, was "
+                    + cpuSampleInterval.toMillis() + "ms");
+        }
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("app.profiling.max-concurrent must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.instrumentation.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Folds the stack traces of one kind of JFR event into collapsed stacks ("root;...;leaf weight"),
+ * the format flame-graph tools read, and into a top-frames summary. The file is read event by
+ * event, so memory grows with the number of distinct stacks, not with the recording's size.
+ */
+final class StackCollapser {
+
+    private static final String LAMBDA = "$$Lambda";
+
+    private final Map<String, Long> stacks = new HashMap<>();
+    private final ProfileEvent event;
+    private long total;
+    private long events;
+
+    private StackCollapser(ProfileEvent event) {
+        this.event = event;
+    }
+
+    static StackCollapser read(Path recording, ProfileEvent event) throws IOException {
+        StackCollapser collapser = new StackCollapser(event);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent recorded = file.readEvent();
+                if (event.matches(recorded) && recorded.getStackTrace() != null) {
+                    collapser.add(recorded.getStackTrace(), event.weight(recorded));
+                }
+            }
+        }
+        return collapser;
+    }
+
+    private void add(RecordedStackTrace stackTrace, long weight) {
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder stack = new StringBuilder(frames.size() * 48);
+        if (stackTrace.isTruncated()) {
+            stack.append("[truncated]");
+        }
+        // JFR lists the leaf first; collapsed stacks start at the root
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            if (!stack.isEmpty()) {
+                stack.append(';');
+            }
+            stack.append(name(frames.get(i)));
+        }
+        stacks.merge(stack.toString(), weight, Long::sum);
+        total += weight;
+        events++;
+    }
+
+    private static String name(RecordedFrame frame) {
+        RecordedMethod method = frame.getMethod();
+        if (method == null) {
+            return "[unknown]";
+        }
+        // Lambda classes are named per run (Foo$$Lambda+0x0000...); keep them comparable across recordings
+        String type = method.getType().getName();
+        int lambda = type.indexOf(LAMBDA);
+        if (lambda >= 0) {
+            type = type.substring(0, lambda + LAMBDA.length());
+        }
+        return type + "." + method.getName();
+    }
+
+    String collapsed() {
+        StringBuilder out = new StringBuilder();
+        sorted(stacks).forEach(entry -> out.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n'));
+        return out.toString();
+    }
+
+    String top(int limit, String heading) {
+        // Insertion order puts callers before callees, so frames with equal weight list root first
+        Map<String, Long> self = new LinkedHashMap<>();
+        Map<String, Long> inclusive = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        stacks.forEach((stack, weight) -> {
+            String[] frames = stack.split(";");
+            self.merge(frames[frames.length - 1], weight, Long::sum);
+            seen.clear();
+            // A recursive method counts once per stack
+            for (String frame : frames) {
+                if (seen.add(frame)) {
+                    inclusive.merge(frame, weight, Long::sum);
+                }
+            }
+        });
+
+        StringBuilder out = new StringBuilder(heading).append('\n');
+        out.append(String.format("%d %s events, %d %s in total, %d distinct stacks%n",
+                events, event.name().toLowerCase(), total, event.unit(), stacks.size()));
+        table(out, "Self", self, limit);
+        table(out, "Total (self and callees)", inclusive, limit);
+        return out.toString();
+    }
+
+    private void table(StringBuilder out, String title, Map<String, Long> weights, int limit) {
+        out.append('\n').append(title).append('\n');
+        out.append(String.format("%8s %14s  %s%n", "percent", event.unit(), "frame"));
+        sorted(weights).stream().limit(limit).forEach(entry -> out.append(String.format("%7.2f%% %14d  %s%n",
+                total == 0 ? 0.0 : 100.0 * entry.getValue() / total, entry.getValue(), entry.getKey())));
+    }
+
+    private static List<Map.Entry<String, Long>> sorted(Map<String, Long> weights) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(weights.entrySet());
+        entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return entries;
+    }
+}
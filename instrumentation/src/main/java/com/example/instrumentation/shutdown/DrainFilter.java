@@ -0,0 +1,96 @@
+package com.example.instrumentation.shutdown;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks every in-flight request, so the coordinator can tell how many were still running when the
+ * drain deadline passed. Once draining, responses carry Connection: close: Tomcat then closes each
+ * keep-alive connection after its current response, and the proxy reconnects to another pod
+ * instead of reusing a connection this pod is about to drop.
+ */
+public class DrainFilter extends OncePerRequestFilter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder startedWhileDraining = new LongAdder();
+    private volatile boolean draining;
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getStartedWhileDraining() {
+        return startedWhileDraining.sum();
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    void startDraining() {
+        draining = true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (draining) {
+            startedWhileDraining.increment();
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+        inFlight.incrementAndGet();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new DecrementOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private class DecrementOnComplete implements AsyncListener {
+
+        private boolean done;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            decrementOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            decrementOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            decrementOnce();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void decrementOnce() {
+            if (!done) {
+                done = true;
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.instrumentation.shutdown;
+
+import java.time.Duration;
+
+/**
+ * Implemented by beans that buffer work (queues, batched writers) and should hand it off once
+ * HTTP traffic has drained, while the rest of the application is still up. Called on the shutdown
+ * thread; implementations should return within the given timeout.
+ */
+public interface DrainListener {
+
+    void onDrained(Duration timeout);
+}
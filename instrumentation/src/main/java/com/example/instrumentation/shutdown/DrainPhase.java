@@ -0,0 +1,41 @@
+package com.example.instrumentation.shutdown;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Runs one step of the shutdown sequence when the context stops its lifecycle beans. Beans stop in
+ * descending phase order, so the phase places the step relative to the web server's graceful
+ * shutdown.
+ */
+class DrainPhase implements SmartLifecycle {
+
+    private final int phase;
+    private final Runnable onStop;
+    private volatile boolean running;
+
+    DrainPhase(int phase, Runnable onStop) {
+        this.phase = phase;
+        this.onStop = onStop;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        onStop.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return phase;
+    }
+}
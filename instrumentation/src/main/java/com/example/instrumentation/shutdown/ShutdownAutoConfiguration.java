@@ -0,0 +1,70 @@
+package com.example.instrumentation.shutdown;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires the shutdown coordinator into every servlet service. beginDrain runs in a lifecycle phase
+ * above WebServerGracefulShutdownLifecycle (so before Tomcat stops accepting), finishDrain in one
+ * below it (after in-flight requests have finished or the deadline passed, while the rest of the
+ * application is still running).
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(ShutdownProperties.class)
+@ConditionalOnProperty(prefix = "app.shutdown", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ShutdownAutoConfiguration {
+
+    private static final int GRACEFUL_PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE;
+
+    @Bean
+    public DrainFilter drainFilter(MeterRegistry registry) {
+        DrainFilter filter = new DrainFilter();
+        Gauge.builder("shutdown.inflight", filter, DrainFilter::getInFlight)
+                .description("Requests in flight, including probes")
+                .register(registry);
+        Gauge.builder("shutdown.draining", filter, f -> f.isDraining() ? 1 : 0)
+                .description("1 once SIGTERM has been received and the pod is draining")
+                .register(registry);
+        return filter;
+    }
+
+    // Outermost filter, so it sees every request, including ones the admission filter rejects
+    @Bean
+    public FilterRegistrationBean<DrainFilter> drainFilterRegistration(DrainFilter drainFilter) {
+        FilterRegistrationBean<DrainFilter> registration = new FilterRegistrationBean<>(drainFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ShutdownCoordinator shutdownCoordinator(DrainFilter drainFilter, ShutdownProperties properties,
+                                                   ApplicationEventPublisher eventPublisher,
+                                                   ObjectProvider<DrainListener> listeners) {
+        return new ShutdownCoordinator(drainFilter, properties, eventPublisher, listeners.orderedStream().toList());
+    }
+
+    @Bean
+    public SmartLifecycle beginDrainPhase(ShutdownCoordinator coordinator) {
+        return new DrainPhase(GRACEFUL_PHASE + 512, coordinator::beginDrain);
+    }
+
+    @Bean
+    public SmartLifecycle finishDrainPhase(ShutdownCoordinator coordinator) {
+        return new DrainPhase(GRACEFUL_PHASE - 512, coordinator::finishDrain);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.instrumentation.shutdown;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders a SIGTERM into: refuse readiness, wait for the endpoint removal to reach every proxy,
+ * let Tomcat drain in-flight requests (server.shutdown=graceful, bounded by
+ * spring.lifecycle.timeout-per-shutdown-phase), then report and flush. beginDrain() and
+ * finishDrain() are called by lifecycle phases placed before and after Spring's graceful shutdown.
+ */
+public class ShutdownCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShutdownCoordinator.class);
+
+    private final DrainFilter drainFilter;
+    private final ShutdownProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<DrainListener> listeners;
+
+    private volatile long drainStartedNanos;
+    private volatile DrainReport report;
+
+    public ShutdownCoordinator(DrainFilter drainFilter, ShutdownProperties properties,
+                               ApplicationEventPublisher eventPublisher, List<DrainListener> listeners) {
+        this.drainFilter = drainFilter;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.listeners = listeners;
+    }
+
+    public DrainReport getReport() {
+        return report;
+    }
+
+    void beginDrain() {
+        drainStartedNanos = System.nanoTime();
+        drainFilter.startDraining();
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        log.info("Shutdown: readiness set to REFUSING_TRAFFIC, {} requests in flight, waiting {}ms for endpoint removal",
+                drainFilter.getInFlight(), properties.propagationDelay().toMillis());
+        // Requests keep arriving until kube-proxy and the gateway have dropped this pod; keep serving them
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.propagationDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void finishDrain() {
+        if (drainStartedNanos == 0) {
+            return;
+        }
+        long drainMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStartedNanos);
+        // Whatever is still running now is cut off when the web server stops
+        int dropped = drainFilter.getInFlight();
+        report = new DrainReport(drainMs, drainFilter.getStartedWhileDraining(), dropped);
+        if (dropped > 0) {
+            log.warn("Shutdown: drain deadline passed after {}ms with {} requests still in flight; they will be dropped ({} requests arrived while draining)",
+                    drainMs, dropped, report.startedWhileDraining());
+        } else {
+            log.info("Shutdown: drained in {}ms, no requests dropped ({} requests arrived while draining)",
+                    drainMs, report.startedWhileDraining());
+        }
+
+        for (DrainListener listener : listeners) {
+            try {
+                listener.onDrained(properties.flushTimeout());
+            } catch (RuntimeException e) {
+                log.warn("Shutdown: drain listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    public record DrainReport(long drainMillis, long startedWhileDraining, int dropped) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.instrumentation.shutdown;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the shutdown coordinator (app.shutdown.*). The drain deadline itself is Spring's
+ * spring.lifecycle.timeout-per-shutdown-phase; propagation-delay + that deadline + flush-timeout
+ * must fit in the pod's terminationGracePeriodSeconds.
+ */
+@ConfigurationProperties(prefix = "app.shutdown")
+public record ShutdownProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5s") Duration propagationDelay,
+        @DefaultValue("3s") Duration flushTimeout) {
+}
@@ -0,0 +1,48 @@
+#!/bin/bash
+
+# Builds the load generator if needed and runs it. Reports go to results/ as JSON and text.
+#
+# Usage: ./run-loadgen.sh --scenario=<preset|/path> [options]       (no arguments lists the options)
+#   ./run-loadgen.sh --scenario=greet --rate=250,500,1000,2000
+#
+# Saturation point per QoS profile: with PROFILES set, each deployment <DEPLOYMENT_PREFIX><profile> is
+# port-forwarded in turn and swept with the same options, labelled with the profile.
+#   PROFILES="guaranteed burstable besteffort" ./run-loadgen.sh --scenario=resources --rate=25,50,100,200,400
+#   DEPLOYMENT_PREFIX=resource-app-  PORT=18080
+
+set -e
+cd "$(dirname "$0")"
+
+DEPLOYMENT_PREFIX=${DEPLOYMENT_PREFIX:-resource-app-}
+PORT=${PORT:-18080}
+
+if [ ! -f target/loadgen.jar ] || [ -n "$(find src pom.xml -newer target/loadgen.jar -print -quit)" ]; then
+    mvn -B -q package -DskipTests
+fi
+
+if [ -z "$PROFILES" ]; then
+    exec java -jar target/loadgen.jar "$@"
+fi
+
+for profile in $PROFILES; do
+    kubectl port-forward "deploy/$DEPLOYMENT_PREFIX$profile" "$PORT:8080" > /dev/null &
+    FORWARD=$!
+    # Any HTTP answer means the tunnel is up; actuator may live on a separate management port
+    until curl -s -o /dev/null "http://localhost:$PORT/"; do
+        if ! kill -0 "$FORWARD" 2>/dev/null; then
+            echo "Port-forward to deploy/$DEPLOYMENT_PREFIX$profile failed" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+    java -jar target/loadgen.jar --url="http://localhost:$PORT" --label="$profile" "$@" || true
+    kill "$FORWARD"
+    wait "$FORWARD" 2>/dev/null || true
+done
+
+echo ""
+echo "Saturation per profile:"
+for profile in $PROFILES; do
+    report=$(ls -t results/loadgen-*-"$profile"-*.txt 2>/dev/null | head -1)
+    printf "  %-12s %s\n" "$profile" "$([ -n "$report" ] && tail -1 "$report" || echo "no report")"
+done
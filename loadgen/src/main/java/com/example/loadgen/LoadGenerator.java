@@ -0,0 +1,118 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Load generator for the services. Runs a scenario in the open model (constant arrival rate) or the
+ * closed model (a fixed number of users), one step or a sweep of rising steps that stops at the
+ * first saturated one, and writes the report to results/ as JSON and text.
+ *
+ * Usage: java -jar loadgen.jar --scenario=greet --rate=100,200,400,800 [options]; see Options.USAGE
+ */
+public class LoadGenerator {
+
+    // Below this share of the target rate the service (or the client) no longer keeps up
+    private static final double MIN_ACHIEVED_SHARE = 0.95;
+
+    // Closed model: more users that add less than this much throughput are past the knee
+    private static final double MIN_THROUGHPUT_GAIN = 0.05;
+
+    public static void main(String[] args) throws IOException {
+        // Lets --host set the Host header; read once, before the first request is built
+        System.setProperty("jdk.httpclient.allowRestrictedHeaders", "host");
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println();
+            System.err.print(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Scenario scenario = options.scenario();
+        System.out.println("==========================================");
+        System.out.printf("Load test: %s (%s) at %s, %s model%s%n", scenario.name(), scenario.service(),
+                options.baseUrl(), options.model().name().toLowerCase(),
+                options.label().isEmpty() ? "" : ", " + options.label());
+        System.out.println("==========================================");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        LoadRunner runner = new LoadRunner(options, client);
+
+        List<StepResult> steps = new ArrayList<>();
+        Report.Saturation saturation = null;
+        for (int i = 0; i < options.steps() && saturation == null; i++) {
+            System.out.printf("Step %d/%d: %s, %ds warmup + %ds%n", i + 1, options.steps(), describe(options, i),
+                    options.warmup().toSeconds(), options.duration().toSeconds());
+            StepResult step = runner.run(i);
+            steps.add(step);
+            String reason = saturationReason(options, step, i == 0 ? null : steps.get(i - 1));
+            if (reason != null) {
+                double sustained = steps.subList(0, i).stream().mapToDouble(StepResult::throughput).max().orElse(0);
+                saturation = new Report.Saturation(i, step.targetRate(), step.users(), reason, sustained);
+            }
+        }
+
+        Report report = new Report(LocalDateTime.now().toString(), options.label(), options.baseUrl(),
+                scenario.name(), scenario.service(), options.model().name().toLowerCase(),
+                options.duration().toSeconds(), options.warmup().toSeconds(), options.slo().toNanos() / 1e6,
+                steps, saturation);
+        String text = report.toText();
+        System.out.println();
+        System.out.print(text);
+
+        Path dir = Path.of(options.outputDir());
+        Files.createDirectories(dir);
+        String name = "loadgen-" + (scenario.name() + (options.label().isEmpty() ? "" : "-" + options.label()))
+                .replaceAll("[^A-Za-z0-9.-]+", "-").replaceAll("^-|-$", "")
+                + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve(name + ".json").toFile(), report);
+        Files.writeString(dir.resolve(name + ".txt"), text);
+        System.out.println("Results written to " + dir.resolve(name) + ".json and .txt");
+    }
+
+    private static String describe(Options options, int step) {
+        if (options.model() == Options.Model.OPEN) {
+            return String.format("%.0f req/s", options.rate(step));
+        }
+        return options.users(step) + " users" + (options.rate(step) > 0
+                ? String.format(" paced at %.0f req/s", options.rate(step)) : "");
+    }
+
+    private static String saturationReason(Options options, StepResult step, StepResult previous) {
+        double sloMs = options.slo().toNanos() / 1e6;
+        if (step.errorRate() > options.maxErrorRate()) {
+            return String.format("error rate %.2f%% above %.2f%%", step.errorRate() * 100, options.maxErrorRate() * 100);
+        }
+        if (step.latency().p99() > sloMs) {
+            return String.format("p99 %.1f ms above the %.0f ms SLO", step.latency().p99(), sloMs);
+        }
+        if (step.targetRate() > 0 && step.throughput() < step.targetRate() * MIN_ACHIEVED_SHARE) {
+            return String.format("%.1f req/s achieved of %.0f", step.throughput(), step.targetRate());
+        }
+        if (options.model() == Options.Model.CLOSED && previous != null && step.targetRate() == 0
+                && step.throughput() < previous.throughput() * (1 + MIN_THROUGHPUT_GAIN)) {
+            return String.format("%d users add only %.1f%% throughput over %d", step.users(),
+                    (step.throughput() / previous.throughput() - 1) * 100, previous.users());
+        }
+        return null;
+    }
+}
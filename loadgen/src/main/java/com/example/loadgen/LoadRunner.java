@@ -0,0 +1,241 @@
+package com.example.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs one step of a scenario. Every request has an intended start time: the open model spaces them
+ * 1/rate apart whatever the responses do, and a paced closed model spaces each user's requests
+ * users/rate apart. Latency is measured from the intended start, so the time a request spent queued
+ * behind a slow one counts (coordinated-omission correction); service time is measured from the
+ * actual send and shows what the server alone took. Only an unpaced closed model, where the next
+ * request is by definition due when the previous one returns, has nothing to correct.
+ *
+ * Requests are sent with the blocking HttpClient API, one virtual thread per request (open) or per
+ * user (closed). Latencies are recorded in microseconds.
+ */
+final class LoadRunner {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Share of the target rate a paced warmup starts at
+    private static final double MIN_RAMP_SHARE = 0.05;
+
+    private final Options options;
+    private final HttpClient client;
+    private final HttpRequest[] requests;
+
+    LoadRunner(Options options, HttpClient client) {
+        this.options = options;
+        this.client = client;
+        this.requests = options.scenario().requests().stream()
+                .map(request -> builder(request).build())
+                .toArray(HttpRequest[]::new);
+    }
+
+    StepResult run(int step) {
+        double rate = options.rate(step);
+        int users = options.users(step);
+        Step run = new Step(System.nanoTime() + options.warmup().toNanos());
+        long end = run.measureFrom + options.duration().toNanos();
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadgen-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long started = System.nanoTime();
+        progress.scheduleAtFixedRate(() -> run.printProgress(started), 1, 1, TimeUnit.SECONDS);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (options.model() == Options.Model.OPEN) {
+                runOpen(run, threads, rate, end);
+            } else {
+                runClosed(run, threads, users, rate, end);
+            }
+        } finally {
+            progress.shutdownNow();
+        }
+        return run.result(step, rate, users, options.model() == Options.Model.OPEN || rate > 0);
+    }
+
+    // Dispatches on this (platform) thread so a slow response never delays the schedule
+    private void runOpen(Step run, ExecutorService threads, double rate, long end) {
+        double interval = NANOS_PER_SECOND / rate;
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long start = System.nanoTime();
+        long next = start;
+        for (long i = 0; next < end; i++) {
+            long intended = next;
+            next = intended + (long) (interval / rampShare(intended, start));
+            sleepUntil(intended);
+            // At the cap the schedule slips, but latency still counts from the intended start
+            inFlight.acquireUninterruptibly();
+            run.maxSendLag.accumulateAndGet(System.nanoTime() - intended, Math::max);
+            long sequence = i;
+            threads.execute(() -> {
+                try {
+                    send(run, sequence, intended);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void runClosed(Step run, ExecutorService threads, int users, double rate, long end) {
+        // Paced: each user owns a slot in the overall schedule, users/rate apart, staggered by 1/rate
+        long interval = rate > 0 ? (long) (users * NANOS_PER_SECOND / rate) : 0;
+        long start = System.nanoTime();
+        for (int u = 0; u < users; u++) {
+            int user = u;
+            threads.execute(() -> {
+                long next = start + (interval > 0 ? (long) (user * NANOS_PER_SECOND / rate) : 0);
+                for (long i = 0; ; i++) {
+                    long intended = interval > 0 ? next : System.nanoTime();
+                    if (intended >= end) {
+                        return;
+                    }
+                    sleepUntil(intended);
+                    send(run, i * users + user, intended);
+                    next += (long) (interval / rampShare(intended, start));
+                }
+            });
+        }
+    }
+
+    // Paced schedules ramp up through the warmup: the full rate against a cold JVM builds a backlog the
+    // measured part would inherit
+    private double rampShare(long intended, long start) {
+        long warmup = options.warmup().toNanos();
+        return warmup > 0 ? Math.min(1, Math.max(MIN_RAMP_SHARE, (intended - start) / (double) warmup)) : 1;
+    }
+
+    private void send(Step run, long sequence, long intended) {
+        HttpRequest request = options.clients() > 0 ? withClient(sequence) : requests[(int) (sequence % requests.length)];
+        boolean measured = intended >= run.measureFrom;
+        int current = run.inFlight.incrementAndGet();
+        run.peakInFlight.accumulateAndGet(current, Math::max);
+        long sent = System.nanoTime();
+        String error = null;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                error = "http " + response.statusCode();
+            }
+        } catch (HttpTimeoutException e) {
+            error = "timeout";
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+        } finally {
+            run.inFlight.decrementAndGet();
+        }
+        long done = System.nanoTime();
+
+        if (error != null) {
+            run.progressErrors.increment();
+            if (measured) {
+                run.errors.computeIfAbsent(error, key -> new LongAdder()).increment();
+            }
+            return;
+        }
+        long latencyUs = (done - intended) / 1000;
+        run.progress.recordValue(latencyUs);
+        if (measured) {
+            run.latency.recordValue(latencyUs);
+            run.serviceTime.recordValue((done - sent) / 1000);
+        }
+    }
+
+    // Addresses from 198.18.0.0/15, the benchmarking range, so the gateway's rate limiter sees N clients
+    private HttpRequest withClient(long sequence) {
+        int client = (int) (sequence % options.clients());
+        String address = "198." + (18 + (client >> 16 & 1)) + "." + (client >> 8 & 0xFF) + "." + (client & 0xFF);
+        return builder(options.scenario().request(sequence))
+                .header("X-Forwarded-For", address)
+                .build();
+    }
+
+    private HttpRequest.Builder builder(Scenario.Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + request.path()))
+                .timeout(options.timeout());
+        if (!options.host().isEmpty()) {
+            builder.header("Host", options.host());
+        }
+        if (request.body() == null) {
+            return builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.header("Content-Type", request.contentType())
+                .method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()));
+    }
+
+    private static void sleepUntil(long deadline) {
+        for (long wait = deadline - System.nanoTime(); wait > 0; wait = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    // Counters for one step; the Recorders take values from many threads without locking
+    private final class Step {
+
+        final long measureFrom;
+        final Recorder latency = new Recorder(3);
+        final Recorder serviceTime = new Recorder(3);
+        final Recorder progress = new Recorder(3);
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        final LongAdder progressErrors = new LongAdder();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peakInFlight = new AtomicInteger();
+        final AtomicLong maxSendLag = new AtomicLong();
+        private Histogram progressInterval;
+
+        Step(long measureFrom) {
+            this.measureFrom = measureFrom;
+        }
+
+        void printProgress(long started) {
+            progressInterval = progress.getIntervalHistogram(progressInterval);
+            long elapsed = (System.nanoTime() - started) / NANOS_PER_SECOND;
+            System.out.printf("  %4ds %-8s %7d ok/s %5d err/s  p50 %8.2f ms  p99 %8.2f ms  in flight %d%n",
+                    elapsed, System.nanoTime() < measureFrom ? "warmup" : "measure",
+                    progressInterval.getTotalCount(), progressErrors.sumThenReset(),
+                    progressInterval.getValueAtPercentile(50) / 1000.0,
+                    progressInterval.getValueAtPercentile(99) / 1000.0, inFlight.get());
+        }
+
+        StepResult result(int step, double rate, int users, boolean corrected) {
+            Histogram latencies = latency.getIntervalHistogram();
+            Histogram serviceTimes = serviceTime.getIntervalHistogram();
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((error, count) -> errorCounts.put(error, count.sum()));
+            long failed = errorCounts.values().stream().mapToLong(Long::longValue).sum();
+            long total = latencies.getTotalCount() + failed;
+            double seconds = options.duration().toNanos() / (double) NANOS_PER_SECOND;
+            return new StepResult(step, rate, users, total, total / seconds, errorCounts,
+                    total == 0 ? 0 : (double) failed / total, corrected,
+                    StepResult.Latency.of(latencies), StepResult.Latency.of(serviceTimes),
+                    peakInFlight.get(), maxSendLag.get() / 1_000_000.0);
+        }
+    }
+}
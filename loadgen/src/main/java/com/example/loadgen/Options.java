@@ -0,0 +1,147 @@
+package com.example.loadgen;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Command-line options, all given as --name=value. A comma-separated --rate (open model) or
+ * --users (closed model) turns the run into a sweep over those steps.
+ */
+record Options(
+        String baseUrl,
+        String host,
+        Scenario scenario,
+        Model model,
+        List<Double> rates,
+        List<Integer> users,
+        Duration duration,
+        Duration warmup,
+        Duration timeout,
+        int maxInFlight,
+        int clients,
+        Duration slo,
+        double maxErrorRate,
+        String label,
+        String outputDir) {
+
+    enum Model { OPEN, CLOSED }
+
+    static final String USAGE = """
+            Usage: java -jar loadgen.jar --scenario=<preset|/path> [options]
+
+              --url=http://localhost:8080   service base URL
+              --host=                       Host header, e.g. gateway-demo.local behind the Gateway
+              --scenario=greet              %s, or a path to GET
+              --model=open                  open: constant arrival rate; closed: fixed number of users
+              --rate=200                    open: requests/s (a list such as 100,200,400 sweeps);
+                                            closed: optional total pacing rate across the users
+              --users=16                    closed: concurrent users (a list such as 1,4,16 sweeps)
+              --duration=30s                measured time per step
+              --warmup=10s                  unmeasured time before each step
+              --timeout=10s                 per-request timeout
+              --max-in-flight=10000         open: cap on outstanding requests
+              --clients=0                   spread requests over N client addresses (X-Forwarded-For)
+              --slo=100ms                   p99 above this marks a step as saturated
+              --max-error-rate=0.01         error rate above this marks a step as saturated
+              --label=                      recorded in the report, e.g. the QoS profile
+              --output=results              directory for the JSON and text reports
+            """.formatted(String.join(", ", Scenario.PRESETS.keySet()));
+
+    private static final Set<String> NAMES = Set.of("url", "host", "scenario", "model", "rate", "users", "duration",
+            "warmup", "timeout", "max-in-flight", "clients", "slo", "max-error-rate", "label", "output");
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(2, eq);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(eq + 1));
+        }
+        if (!values.containsKey("scenario")) {
+            throw new IllegalArgumentException("--scenario is required");
+        }
+
+        Model model = Model.valueOf(values.getOrDefault("model", "open").toUpperCase());
+        List<Double> rates = list(values.get("rate"), Double::parseDouble);
+        List<Integer> users = list(values.getOrDefault("users", "16"), Integer::parseInt);
+        if (model == Model.OPEN && rates.isEmpty()) {
+            rates = List.of(200.0);
+        }
+        if (model == Model.CLOSED && rates.size() > 1) {
+            throw new IllegalArgumentException("The closed model sweeps --users; --rate takes a single pacing rate");
+        }
+        if (rates.stream().anyMatch(rate -> rate <= 0) || users.stream().anyMatch(count -> count <= 0)) {
+            throw new IllegalArgumentException("--rate and --users must be positive");
+        }
+
+        String baseUrl = values.getOrDefault("url", "http://localhost:8080");
+        return new Options(
+                baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl,
+                values.getOrDefault("host", ""),
+                Scenario.of(values.get("scenario")),
+                model,
+                rates,
+                users,
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("timeout", "10s")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Integer.parseInt(values.getOrDefault("clients", "0")),
+                duration(values.getOrDefault("slo", "100ms")),
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                values.getOrDefault("label", ""),
+                values.getOrDefault("output", "results"));
+    }
+
+    // Number of steps in this run: one unless a list of rates or users was given
+    int steps() {
+        return model == Model.OPEN ? rates.size() : users.size();
+    }
+
+    // Open: the step's rate; closed: the pacing rate, or 0 to send as fast as responses come back
+    double rate(int step) {
+        if (model == Model.OPEN) {
+            return rates.get(step);
+        }
+        return rates.isEmpty() ? 0 : rates.get(0);
+    }
+
+    int users(int step) {
+        return model == Model.CLOSED ? users.get(step) : 0;
+    }
+
+    // 30s, 500ms, 2m or a plain number of seconds
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static <T> List<T> list(String value, Function<String, T> parser) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<T> items = new ArrayList<>();
+        Arrays.stream(value.split(",")).map(String::trim).map(parser).forEach(items::add);
+        return items;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.loadgen;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Everything a run produced, written as JSON (for comparing runs) and as a text table. saturation
+ * is null when no step crossed the SLO, the error budget or the target rate.
+ */
+record Report(
+        String timestamp,
+        String label,
+        String url,
+        String scenario,
+        String service,
+        String model,
+        long durationSeconds,
+        long warmupSeconds,
+        double sloMs,
+        List<StepResult> steps,
+        Saturation saturation) {
+
+    /**
+     * The first step that saturated and why, plus the best throughput of the steps before it: the
+     * rate this service sustains within the SLO under this profile.
+     */
+    record Saturation(int step, double targetRate, int users, String reason, double maxSustainedThroughput) {
+    }
+
+    String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-5s %9s %6s %10s %9s %8s %9s %9s %9s %9s %9s %9s%n", "step", "target/s", "users",
+                "achieved/s", "requests", "errors", "p50", "p90", "p99", "p99.9", "max", "svc p99"));
+        for (StepResult step : steps) {
+            StepResult.Latency latency = step.latency();
+            text.append(String.format("%-5d %9s %6s %10.1f %9d %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    step.step() + 1, step.targetRate() > 0 ? String.format("%.0f", step.targetRate()) : "-",
+                    step.users() > 0 ? String.valueOf(step.users()) : "-", step.throughput(), step.requests(),
+                    step.errorRate() * 100, latency.p50(), latency.p90(), latency.p99(), latency.p999(),
+                    latency.max(), step.serviceTime().p99()));
+            if (!step.errors().isEmpty()) {
+                text.append("      errors: ").append(step.errors().entrySet().stream()
+                        .map(Map.Entry::toString).collect(Collectors.joining(", "))).append('\n');
+            }
+        }
+        boolean corrected = steps.stream().allMatch(StepResult::coordinatedOmissionCorrected);
+        text.append(corrected
+                ? "(ms from each request's intended start, corrected for coordinated omission; svc = from the actual send)\n"
+                : "(ms; unpaced closed model, so latency equals service time and nothing is corrected)\n");
+        if (saturation == null) {
+            text.append("No step saturated\n");
+        } else {
+            text.append(String.format("Saturated at step %d: %s; highest sustained throughput %.1f req/s%n",
+                    saturation.step() + 1, saturation.reason(), saturation.maxSustainedThroughput()));
+        }
+        return text.toString();
+    }
+}
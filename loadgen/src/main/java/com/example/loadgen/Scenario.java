@@ -0,0 +1,63 @@
+package com.example.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A named request mix against one service. Requests are sent round-robin, so a mix of three
+ * requests gets a third of the rate each.
+ */
+public record Scenario(String name, String service, List<Request> requests) {
+
+    // One preset per service (two for ResourceLimitsApp), all on the services' default port 8080
+    static final Map<String, Scenario> PRESETS = new LinkedHashMap<>();
+
+    static {
+        preset("greet", "SpringBootService", Request.get("/greet/loadgen"));
+        preset("config", "SpringBootConfigApp", Request.get("/config"));
+        preset("probes", "HealthProbesApp",
+                Request.get("/actuator/health/liveness"),
+                Request.get("/actuator/health/readiness"),
+                Request.get("/info"));
+        preset("resources", "ResourceLimitsApp", Request.get("/resources?history=0"));
+        // One second of CPU per request: meant for the closed model with a few users
+        preset("cpu-load", "ResourceLimitsApp", Request.get("/cpu-load?seconds=1"));
+        preset("gateway", "GatewayAPIApp",
+                Request.get("/api/info"),
+                Request.get("/api/headers"),
+                Request.post("/api/data", "application/json", "{\"source\":\"loadgen\",\"values\":[1,2,3]}"));
+    }
+
+    private static void preset(String name, String service, Request... requests) {
+        PRESETS.put(name, new Scenario(name, service, List.of(requests)));
+    }
+
+    // A preset name, or a path (starting with /) to GET
+    static Scenario of(String nameOrPath) {
+        if (nameOrPath.startsWith("/")) {
+            return new Scenario(nameOrPath, "custom", List.of(Request.get(nameOrPath)));
+        }
+        Scenario scenario = PRESETS.get(nameOrPath);
+        if (scenario == null) {
+            throw new IllegalArgumentException(
+                    "Unknown scenario '" + nameOrPath + "'; use a path or one of " + PRESETS.keySet());
+        }
+        return scenario;
+    }
+
+    Request request(long sequence) {
+        return requests.get((int) (sequence % requests.size()));
+    }
+
+    public record Request(String method, String path, String contentType, String body) {
+
+        static Request get(String path) {
+            return new Request("GET", path, null, null);
+        }
+
+        static Request post(String path, String contentType, String body) {
+            return new Request("POST", path, contentType, body);
+        }
+    }
+}
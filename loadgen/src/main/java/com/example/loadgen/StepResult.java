@@ -0,0 +1,45 @@
+package com.example.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Outcome of one step. Throughput counts every response in the measured window, errors included;
+ * latency percentiles only cover successful responses. targetRate is 0 for an unpaced closed model.
+ */
+record StepResult(
+        int step,
+        double targetRate,
+        int users,
+        long requests,
+        double throughput,
+        Map<String, Long> errors,
+        double errorRate,
+        boolean coordinatedOmissionCorrected,
+        Latency latency,
+        Latency serviceTime,
+        int peakInFlight,
+        double maxSendLagMs) {
+
+    // Milliseconds
+    record Latency(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Latency of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new Latency(histogram.getTotalCount(),
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+}
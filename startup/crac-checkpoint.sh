@@ -0,0 +1,71 @@
+#!/bin/bash
+
+# Builds a CRaC (Coordinated Restore at Checkpoint) image for one service: starts it on a
+# CRaC-capable JDK, lets Spring Boot take a checkpoint once the context has refreshed, and commits
+# the container with the checkpoint as <image>:crac. measure-startup.sh picks that image up.
+#
+# Usage: ./crac-checkpoint.sh <module>         (modules: demo config health resources gateway)
+#   CRAC_IMAGE=azul/zulu-openjdk:21-jdk-crac-latest   base image with a CRaC-enabled JDK
+#
+# Checkpoint and restore need the CHECKPOINT_RESTORE and SYS_PTRACE capabilities, on the build host
+# and in the pod (securityContext.capabilities.add). The checkpoint holds the heap as it was at
+# refresh, so it must never be taken with real secrets in the environment.
+
+set -e
+cd "$(dirname "$0")"
+ROOT=$(cd .. && pwd)
+
+CRAC_IMAGE=${CRAC_IMAGE:-azul/zulu-openjdk:21-jdk-crac-latest}
+
+case "$1" in
+    demo)      dir=Week1/Day1-2-3-4/SpringBootService;  main=com.example.demo.DemoApplication;                 image=springboot-microservice ;;
+    config)    dir=Week1/Day5-6-7/SpringBootConfigApp;  main=com.example.demo.ConfigDemoApplication;           image=config-demo ;;
+    health)    dir=Week2/Day8/HealthProbesApp;          main=com.example.healthprobes.HealthProbesApplication; image=health-probes ;;
+    resources) dir=Week2/Day9/ResourceLimitsApp;        main=com.example.resources.ResourceLimitsApplication;  image=resource-limits ;;
+    gateway)   dir=Week2/Day10/GatewayAPIApp;           main=com.example.gatewayapi.GatewayAPIApplication;     image=gateway-api-app ;;
+    *)
+        echo "Usage: $0 demo|config|health|resources|gateway" >&2
+        exit 1
+        ;;
+esac
+
+WORK=$(mktemp -d)
+CONTAINER="crac-checkpoint-$1"
+trap 'rm -rf "$WORK"; docker rm -f "$CONTAINER" > /dev/null 2>&1 || true' EXIT
+
+echo "=========================================="
+echo "CRaC checkpoint: $1 ($dir)"
+echo "=========================================="
+
+# -Dcrac=true adds org.crac, which Spring Boot uses to stop and restart its lifecycle beans
+(cd "$ROOT/instrumentation" && mvn -B -q install -DskipTests)
+(cd "$ROOT/$dir" && mvn -B -q clean package -DskipTests -Dcrac=true)
+
+# Same thin layout as the Dockerfiles
+cp "$ROOT/$dir"/target/*.jar "$WORK/fat.jar"
+(cd "$WORK" && java -Djarmode=layertools -jar fat.jar extract --destination layers > /dev/null)
+cp -r "$WORK/layers/dependencies/BOOT-INF/lib" "$WORK/lib"
+cp "$WORK"/layers/snapshot-dependencies/BOOT-INF/lib/*.jar "$WORK/lib/" 2>/dev/null || true
+cp "$ROOT/$dir"/target/*.jar.original "$WORK/app.jar"
+
+cat > "$WORK/Dockerfile" <<EOF
+FROM $CRAC_IMAGE
+WORKDIR /app
+COPY lib lib
+COPY app.jar app.jar
+EOF
+docker build -q -t "$image:crac-base" "$WORK" > /dev/null
+
+# The JVM dumps itself to /crac and exits once Spring Boot has refreshed the context
+echo "Starting $image:crac-base and waiting for the checkpoint..."
+docker run --name "$CONTAINER" --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE "$image:crac-base" \
+    java -XX:CRaCCheckpointTo=/crac -Dspring.context.checkpoint=onRefresh -cp "app.jar:lib/*" "$main" || true
+
+if ! docker cp "$CONTAINER:/crac/core.img" "$WORK/" > /dev/null 2>&1; then
+    echo "No checkpoint was written; see the container output above." >&2
+    exit 1
+fi
+
+docker commit --change 'ENTRYPOINT ["java", "-XX:CRaCRestoreFrom=/crac"]' "$CONTAINER" "$image:crac" > /dev/null
+echo "Committed $image:crac"
+echo "Measure it with: ./measure-startup.sh $1"
@@ -0,0 +1,192 @@
+#!/bin/bash
+
+# Measures time-to-first-ready for every service: from starting the JVM (or container) until its
+# readiness URL first answers 200. Each variant is started RUNS times and the median is reported,
+# along with the "Started ... in N seconds" figure Spring Boot logs.
+#
+# Usage: ./measure-startup.sh [module...]      (modules: demo config health resources gateway)
+#   MODE=docker   build each image (default and AOT=true) and start containers with CPUS/MEMORY limits
+#   MODE=local    build the jars with Maven and start them on this machine (no Docker needed)
+#   RUNS=3        starts per variant
+#   PORT=18095 MANAGEMENT_PORT=18096   host ports; the second is used for a separate actuator port
+#   CPUS=1 MEMORY=512m   container limits in docker mode, matching the deployments
+#
+# Variants:
+#   jar      java -jar on the fat jar (local) or the image without its CDS archive (docker)
+#   cds      thin layout (lib/ + app.jar) with the AppCDS archive from a training run
+#   aot      as cds, built with -Daot=true and run with -Dspring.aot.enabled=true
+#   crac     restore from a checkpoint image made by crac-checkpoint.sh (docker, if present)
+
+set -e
+cd "$(dirname "$0")"
+ROOT=$(cd .. && pwd)
+
+MODE=${MODE:-docker}
+RUNS=${RUNS:-3}
+CPUS=${CPUS:-1}
+MEMORY=${MEMORY:-512m}
+PORT=${PORT:-18095}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-18096}
+TIMEOUT_S=${TIMEOUT_S:-120}
+RESULT_DIR=results
+RESULT_FILE="$RESULT_DIR/startup-$(date +%Y%m%d-%H%M%S).json"
+
+# name|directory|main class|readiness path|image|actuator port in the container
+# The gateway's actuator is on its management port; it is polled there (as MANAGEMENT_PORT on the
+# host) rather than moved onto the app port, because an AOT build fixes that split at build time.
+MODULES="
+demo|Week1/Day1-2-3-4/SpringBootService|com.example.demo.DemoApplication|/actuator/health|springboot-microservice|8080
+config|Week1/Day5-6-7/SpringBootConfigApp|com.example.demo.ConfigDemoApplication|/actuator/health|config-demo|8080
+health|Week2/Day8/HealthProbesApp|com.example.healthprobes.HealthProbesApplication|/actuator/health/readiness|health-probes|8080
+resources|Week2/Day9/ResourceLimitsApp|com.example.resources.ResourceLimitsApplication|/actuator/health|resource-limits|8080
+gateway|Week2/Day10/GatewayAPIApp|com.example.gatewayapi.GatewayAPIApplication|/actuator/health|gateway-api-app|8081
+"
+
+SELECTED="$*"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Polls the readiness URL; prints the milliseconds since $1, or -1 on timeout
+wait_ready() {
+    local start=$1 url=$2
+    local deadline=$(( start + TIMEOUT_S * 1000 ))
+    until curl -sf -o /dev/null "$url"; do
+        if [ "$(now_ms)" -gt "$deadline" ]; then
+            echo -1
+            return
+        fi
+        sleep 0.05
+    done
+    echo $(( $(now_ms) - start ))
+}
+
+# "Started X in 3.2 seconds (process running for 3.6)" -> 3.2
+started_seconds() {
+    grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$1" | head -1 | awk '{print $4}'
+}
+
+median() {
+    sort -n | awk '{v[NR] = $1} END {if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2}'
+}
+
+# Runs one start of a variant; appends "ready_ms started_s" to $WORK/results/<module>-<variant>
+measure_once() {
+    local module=$1 variant=$2 path=$3
+    shift 3
+    local log="$WORK/run.log" start ready pid container
+    local url="http://localhost:$PORT$path" ports=(-p "$PORT:8080") management=()
+    if [ "$ACTUATOR_PORT" != "8080" ]; then
+        url="http://localhost:$MANAGEMENT_PORT$path"
+        ports+=(-p "$MANAGEMENT_PORT:$ACTUATOR_PORT")
+        management=(--management.server.port="$MANAGEMENT_PORT")
+    fi
+
+    start=$(now_ms)
+    if [ "$MODE" = "docker" ]; then
+        container="startup-$module-$variant"
+        docker run -d --rm --name "$container" --cpus "$CPUS" --memory "$MEMORY" "${ports[@]}" "$@" > /dev/null
+        ready=$(wait_ready "$start" "$url")
+        docker logs "$container" > "$log" 2>&1
+        docker stop -t 5 "$container" > /dev/null
+    else
+        java "$@" --server.port="$PORT" "${management[@]}" --app.logs.dir="$WORK/logs" > "$log" 2>&1 &
+        pid=$!
+        ready=$(wait_ready "$start" "$url")
+        kill "$pid" && wait "$pid" 2>/dev/null || true
+    fi
+    echo "$ready $(started_seconds "$log")" >> "$WORK/results/$module-$variant"
+    echo "    $variant: ready in ${ready}ms"
+}
+
+measure_variant() {
+    local module=$1 variant=$2 path=$3
+    shift 3
+    for _ in $(seq "$RUNS"); do
+        measure_once "$module" "$variant" "$path" "$@"
+    done
+}
+
+# Builds the thin layout plus CDS archive the Dockerfiles produce, from a freshly built fat jar
+prepare_local() {
+    local dir=$1 main=$2 aot=$3 out=$4
+    (cd "$ROOT/$dir" && mvn -B -q clean package -DskipTests -Daot="$aot" > /dev/null)
+    mkdir -p "$out"
+    cp "$ROOT/$dir"/target/*.jar "$out/fat.jar"
+    (cd "$out" && java -Djarmode=layertools -jar fat.jar extract --destination layers > /dev/null)
+    cp -r "$out/layers/dependencies/BOOT-INF/lib" "$out/lib"
+    cp "$out"/layers/snapshot-dependencies/BOOT-INF/lib/*.jar "$out/lib/" 2>/dev/null || true
+    cp "$ROOT/$dir"/target/*.jar.original "$out/app.jar"
+    # The archive records the class path, so train with the same absolute paths the runs use
+    (cd "$out" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=error -Dspring.context.exit=onRefresh \
+        -Dspring.aot.enabled="$aot" -Dapp.logs.dir="$WORK/logs" -cp "$out/app.jar:$out/lib/*" "$main" > /dev/null 2>&1)
+}
+
+echo "=========================================="
+echo "Startup time ($MODE, $RUNS runs per variant)"
+echo "=========================================="
+
+mkdir -p "$WORK/results" "$WORK/build"
+if [ "$MODE" = "local" ]; then
+    (cd "$ROOT/instrumentation" && mvn -B -q install -DskipTests > /dev/null)
+fi
+
+echo "$MODULES" | while IFS='|' read -r name dir main path image ACTUATOR_PORT; do
+    [ -z "$name" ] && continue
+    if [ -n "$SELECTED" ] && ! echo " $SELECTED " | grep -q " $name "; then
+        continue
+    fi
+    echo "--- $name ($dir) ---"
+
+    if [ "$MODE" = "docker" ]; then
+        for aot in false true; do
+            tag="$image:startup"
+            [ "$aot" = "true" ] && tag="$image:startup-aot"
+            docker build -q --build-context instrumentation="$ROOT/instrumentation" --build-arg AOT="$aot" \
+                -t "$tag" "$ROOT/$dir" > /dev/null
+        done
+        measure_variant "$name" jar "$path" --entrypoint java "$image:startup" \
+            @aot.args -cp "app.jar:lib/*" "$main"
+        measure_variant "$name" cds "$path" "$image:startup"
+        measure_variant "$name" aot "$path" "$image:startup-aot"
+        if docker image inspect "$image:crac" > /dev/null 2>&1; then
+            measure_variant "$name" crac "$path" --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE "$image:crac"
+        fi
+    else
+        plain="$WORK/build/$name"
+        aot="$WORK/build/$name-aot"
+        prepare_local "$dir" "$main" false "$plain"
+        prepare_local "$dir" "$main" true "$aot"
+        measure_variant "$name" jar "$path" -jar "$plain/fat.jar"
+        measure_variant "$name" cds "$path" -XX:SharedArchiveFile="$plain/app.jsa" -cp "$plain/app.jar:$plain/lib/*" "$main"
+        measure_variant "$name" aot "$path" -XX:SharedArchiveFile="$aot/app.jsa" -Dspring.aot.enabled=true \
+            -cp "$aot/app.jar:$aot/lib/*" "$main"
+    fi
+done
+
+# Summary table and JSON
+mkdir -p "$RESULT_DIR"
+echo ""
+printf "%-10s %-6s %14s %14s\n" "module" "variant" "ready p50 (ms)" "started (s)"
+echo "[" > "$RESULT_FILE"
+first=true
+for file in "$WORK"/results/*; do
+    [ -f "$file" ] || continue
+    key=$(basename "$file")
+    module=${key%-*}
+    variant=${key##*-}
+    ready=$(awk '$1 >= 0 {print $1}' "$file" | median)
+    started=$(awk '$2 != "" {print $2}' "$file" | median)
+    printf "%-10s %-6s %14s %14s\n" "$module" "$variant" "$ready" "$started"
+    $first || echo "," >> "$RESULT_FILE"
+    first=false
+    printf '  {"module": "%s", "variant": "%s", "mode": "%s", "runs": %s, "readyMsMedian": %s, "startedSecondsMedian": %s, "readyMs": [%s]}' \
+        "$module" "$variant" "$MODE" "$RUNS" "${ready/-/null}" "${started/-/null}" \
+        "$(awk '{print $1}' "$file" | paste -sd, -)" >> "$RESULT_FILE"
+done
+printf '\n]\n' >> "$RESULT_FILE"
+echo ""
+echo "Results written to startup/$RESULT_FILE"